@@ -1,14 +1,22 @@
 package escoba;
 
+import escoba.bots.EscobaSeekingStrategy;
+import escoba.bots.GreedyCaptureStrategy;
+import escoba.bots.RandomStrategy;
 import escoba.controller.GameController;
 import escoba.game.GameState;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
 import escoba.view.PlayerView;
 
 import javax.swing.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main entry point for La Escoba de 15 game.
  * Sets up the game with two player windows and starts the game.
+ *
+ * Optional argument: name of a bot for Player 2 (aleatorio, codicioso, escobero).
  */
 public class Main {
 
@@ -24,6 +32,15 @@ public class Main {
             // Crear game controller
             GameController controller = new GameController(gameState, view1, view2);
 
+            // Bot opcional para el jugador 2
+            if (args.length > 0) {
+                Strategy bot = crearBot(args[0]);
+                if (bot != null) {
+                    controller.asignarEstrategia(2, bot);
+                    controller.setStrategyRunner(new StrategyRunner(250, TimeUnit.MILLISECONDS));
+                }
+            }
+
             // Configurar listeners de input
             view1.setInputListener(e -> {
                 String input = view1.getInput();
@@ -43,4 +60,15 @@ public class Main {
             controller.iniciarJuego();
         });
     }
+
+    private static Strategy crearBot(String nombre) {
+        switch (nombre) {
+            case "aleatorio": return new RandomStrategy();
+            case "codicioso": return new GreedyCaptureStrategy();
+            case "escobero": return new EscobaSeekingStrategy();
+            default:
+                System.err.println("Bot desconocido: " + nombre);
+                return null;
+        }
+    }
 }
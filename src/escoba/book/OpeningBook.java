@@ -0,0 +1,206 @@
+package escoba.book;
+
+import escoba.game.Move;
+import escoba.game.PositionView;
+import escoba.model.Card;
+import escoba.model.CardMask;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Libro de aperturas: la mejor primera jugada de la mano para cada reparto inicial.
+ *
+ * La primera decisión solo depende de las 4 cartas de la mesa y las 3 de la
+ * mano. Para el puntaje una carta vale por su valor de juego y por ser o no de
+ * Oro (el 7 de Oro es el único 7 de Oro), así que cada carta se reduce a una de
+ * 20 clases y la apertura al multiconjunto de clases de mesa y mano: unas 7
+ * millones de aperturas en lugar de cientos de millones de repartos.
+ *
+ * El archivo es una lista de registros fijos de 12 bytes ordenados por clave,
+ * que se lee por MappedByteBuffer con búsqueda binaria: no ocupa heap y no hay
+ * que cargarlo. Formato de cada registro (big-endian):
+ *
+ *   long  clave (ver key())
+ *   byte  carta de la mano, en el orden de clases
+ *   byte  máscara de cartas de la mesa a llevar, en el orden de clases
+ *   short valor esperado de la jugada, en centésimos de punto de diferencia
+ */
+public final class OpeningBook implements Closeable {
+
+    public static final int RECORD_BYTES = 12;
+
+    /** Resultado de value() para una clave que no está en el libro (fuera del rango de short). */
+    public static final int SIN_VALOR = Integer.MIN_VALUE;
+
+    /** Cantidad de clases de carta: 10 valores, con y sin Oro. */
+    public static final int CLASES = 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int records;
+
+    private OpeningBook(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        this.records = (int) (channel.size() / RECORD_BYTES);
+    }
+
+    /**
+     * Abre un libro generado por OpeningBookGenerator.
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        return new OpeningBook(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Clase de una carta: valor de juego menos uno, más 10 si es de Oro.
+     */
+    public static int clase(int cardIndex) {
+        int value = CardMask.gameValue(cardIndex);
+        return (cardIndex / 10 == 0 ? 10 : 0) + value - 1;
+    }
+
+    /**
+     * Clave de una apertura con las clases ya ordenadas de menor a mayor.
+     * Cinco bits por clase: primero las 4 de la mesa y después las 3 de la mano,
+     * así el orden de las claves es el orden lexicográfico de las clases.
+     */
+    public static long key(int[] tableClases, int[] handClases) {
+        long key = 0L;
+        for (int i = 0; i < 4; i++) {
+            key = (key << 5) | tableClases[i];
+        }
+        for (int i = 0; i < 3; i++) {
+            key = (key << 5) | handClases[i];
+        }
+        return key;
+    }
+
+    /**
+     * Si la posición es la primera jugada de una mano de dos jugadores.
+     */
+    public static boolean isOpening(PositionView position) {
+        return position.getNumPlayers() == 2
+                && position.getTableSize() == 4
+                && position.getHandSize() == 3
+                && position.getHandSize(1) == 3
+                && position.getHandSize(2) == 3
+                && position.getDeckSize() == Card.TOTAL_CARTAS - 10;
+    }
+
+    /**
+     * Jugada del libro para una apertura.
+     *
+     * @return La jugada en posiciones reales de la mano y la mesa, o Move.NINGUNA
+     *         si la posición no es una apertura o no está en el libro
+     */
+    public long lookup(PositionView position) {
+        if (!isOpening(position)) {
+            return Move.NINGUNA;
+        }
+        // Cada carta como (clase << 2) | posición: ordenar por ese valor ordena por
+        // clase y, en empates, por posición, sin arreglos auxiliares
+        int h0 = clase(position.getHandCard(0).getIndex()) << 2;
+        int h1 = clase(position.getHandCard(1).getIndex()) << 2 | 1;
+        int h2 = clase(position.getHandCard(2).getIndex()) << 2 | 2;
+        int t0 = clase(position.getTableCard(0).getIndex()) << 2;
+        int t1 = clase(position.getTableCard(1).getIndex()) << 2 | 1;
+        int t2 = clase(position.getTableCard(2).getIndex()) << 2 | 2;
+        int t3 = clase(position.getTableCard(3).getIndex()) << 2 | 3;
+
+        // Redes de ordenamiento de 3 y 4 elementos
+        int x;
+        x = Math.min(h0, h1);
+        h1 = Math.max(h0, h1);
+        h0 = x;
+        x = Math.min(h1, h2);
+        h2 = Math.max(h1, h2);
+        h1 = x;
+        x = Math.min(h0, h1);
+        h1 = Math.max(h0, h1);
+        h0 = x;
+        x = Math.min(t0, t1);
+        t1 = Math.max(t0, t1);
+        t0 = x;
+        x = Math.min(t2, t3);
+        t3 = Math.max(t2, t3);
+        t2 = x;
+        x = Math.min(t0, t2);
+        t2 = Math.max(t0, t2);
+        t0 = x;
+        x = Math.min(t1, t3);
+        t3 = Math.max(t1, t3);
+        t1 = x;
+        x = Math.min(t1, t2);
+        t2 = Math.max(t1, t2);
+        t1 = x;
+
+        long key = ((long) (t0 >> 2) << 30) | ((long) (t1 >> 2) << 25) | ((long) (t2 >> 2) << 20)
+                | ((long) (t3 >> 2) << 15) | ((h0 >> 2) << 10) | ((h1 >> 2) << 5) | (h2 >> 2);
+        int record = find(key);
+        if (record < 0) {
+            return Move.NINGUNA;
+        }
+        int offset = record * RECORD_BYTES;
+        int handByte = buffer.get(offset + 8);
+        int hand = (handByte == 0 ? h0 : handByte == 1 ? h1 : h2) & 3;
+        int taken = buffer.get(offset + 9);
+        long slots = 0L;
+        if ((taken & 1) != 0) {
+            slots |= 1L << (t0 & 3);
+        }
+        if ((taken & 2) != 0) {
+            slots |= 1L << (t1 & 3);
+        }
+        if ((taken & 4) != 0) {
+            slots |= 1L << (t2 & 3);
+        }
+        if ((taken & 8) != 0) {
+            slots |= 1L << (t3 & 3);
+        }
+        return slots == 0 ? Move.colocar(hand) : Move.capturar(hand, slots);
+    }
+
+    /**
+     * Valor guardado para una clave, en centésimos de punto, o SIN_VALOR si no está.
+     */
+    public int value(long key) {
+        int record = find(key);
+        return record < 0 ? SIN_VALOR : buffer.getShort(record * RECORD_BYTES + 10);
+    }
+
+    public int getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Búsqueda binaria de una clave. Solo usa lecturas absolutas del buffer,
+     * así que varios hilos pueden consultar el mismo libro.
+     */
+    private int find(long key) {
+        int lo = 0;
+        int hi = records - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = buffer.getLong(mid * RECORD_BYTES);
+            if (k < key) {
+                lo = mid + 1;
+            } else if (k > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
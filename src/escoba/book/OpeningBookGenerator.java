@@ -0,0 +1,313 @@
+package escoba.book;
+
+import escoba.bots.EscobaSeekingStrategy;
+import escoba.game.GameState;
+import escoba.game.Move;
+import escoba.game.MoveGenerator;
+import escoba.game.PositionView;
+import escoba.game.ScoreCalculator;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
+import escoba.model.Card;
+import escoba.model.CardMask;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Genera el archivo de OpeningBook.
+ *
+ * Recorre todas las aperturas (multiconjuntos de clases de mesa y mano que se
+ * pueden formar con la baraja) en orden de clave. Para cada jugada legal juega
+ * partidas completas con el resto del mazo mezclado y el bot escobero en ambos
+ * asientos, y guarda la jugada con mejor diferencia media de puntos. Todas las
+ * jugadas de una apertura se prueban con los mismos repartos, así comparan
+ * contra la misma suerte.
+ *
+ * El trabajo se reparte por las dos primeras clases de la mesa; cada tarea
+ * devuelve sus registros ya ordenados y se escriben en orden al archivo.
+ */
+public class OpeningBookGenerator {
+
+    private final int rollouts;
+    private final long seed;
+    private final long maxOpenings;
+
+    /**
+     * @param rollouts Partidas por jugada candidata
+     * @param seed Semilla de los repartos
+     * @param maxOpenings Tope de aperturas a escribir (para pruebas), o Long.MAX_VALUE
+     */
+    public OpeningBookGenerator(int rollouts, long seed, long maxOpenings) {
+        this.rollouts = rollouts;
+        this.seed = seed;
+        this.maxOpenings = maxOpenings;
+    }
+
+    /** Copias de una clase en la baraja: tres fuera de Oro, una de Oro. */
+    static int copias(int clase) {
+        return clase < 10 ? 3 : 1;
+    }
+
+    /**
+     * Genera el libro completo en el archivo dado.
+     *
+     * @return Cantidad de aperturas escritas
+     */
+    public long generate(Path path, int threads) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<Evaluator> evaluators = ThreadLocal.withInitial(Evaluator::new);
+        long written = 0;
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // Pocas tareas en vuelo: se escriben en orden y se deja de encolar al llegar al tope
+            Deque<Future<ByteBuffer>> inFlight = new ArrayDeque<>();
+            for (int t0 = 0; t0 < OpeningBook.CLASES && written < maxOpenings; t0++) {
+                for (int t1 = t0; t1 < OpeningBook.CLASES && written < maxOpenings; t1++) {
+                    if (t1 == t0 && copias(t0) < 2) {
+                        continue;
+                    }
+                    int a = t0;
+                    int b = t1;
+                    inFlight.add(executor.submit(() -> evaluators.get().prefix(a, b)));
+                    if (inFlight.size() > 2 * threads) {
+                        written += write(inFlight.poll().get(), out, written);
+                    }
+                }
+            }
+            while (!inFlight.isEmpty() && written < maxOpenings) {
+                written += write(inFlight.poll().get(), out, written);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la evaluación de una apertura", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return written;
+    }
+
+    private long write(ByteBuffer records, FileChannel out, long written) throws IOException {
+        long fits = Math.min(records.remaining() / OpeningBook.RECORD_BYTES, maxOpenings - written);
+        records.limit((int) (records.position() + fits * OpeningBook.RECORD_BYTES));
+        while (records.hasRemaining()) {
+            out.write(records);
+        }
+        return fits;
+    }
+
+    /**
+     * Evalúa aperturas. Reutiliza su mesa y sus arreglos: uno por hilo.
+     */
+    private final class Evaluator {
+        private final GameState state = new GameState();
+        private final MoveGenerator generator = new MoveGenerator();
+        private final PositionView view = new PositionView();
+        private final StrategyRunner runner = new StrategyRunner(0, TimeUnit.MILLISECONDS);
+        private final Strategy bot = new EscobaSeekingStrategy();
+        private final Random random = new Random();
+        private final List<Card> hand = new ArrayList<>(3);
+        private final List<Card> table = new ArrayList<>(4);
+        private final long[] moves = new long[64];
+        private final byte[] rest = new byte[Card.TOTAL_CARTAS];
+        private final byte[] restOrdered = new byte[Card.TOTAL_CARTAS];     // antes de mezclar
+        private final byte[] order = new byte[Card.TOTAL_CARTAS];
+        private final int[] scores = new int[2];
+        private final int[] tableClases = new int[4];
+        private final int[] handClases = new int[3];
+        private final int[] usadas = new int[OpeningBook.CLASES];
+        private final int[] nextSuit = new int[10];
+
+        /**
+         * Todas las aperturas cuya mesa empieza con las clases a y b, en orden de clave.
+         */
+        ByteBuffer prefix(int a, int b) {
+            ByteBuffer records = ByteBuffer.allocate(1 << 16);
+            tableClases[0] = a;
+            tableClases[1] = b;
+            usadas[a]++;
+            usadas[b]++;
+            for (int t2 = b; t2 < OpeningBook.CLASES; t2++) {
+                if (usadas[t2] == copias(t2)) {
+                    continue;
+                }
+                usadas[t2]++;
+                tableClases[2] = t2;
+                for (int t3 = t2; t3 < OpeningBook.CLASES; t3++) {
+                    if (usadas[t3] == copias(t3)) {
+                        continue;
+                    }
+                    usadas[t3]++;
+                    tableClases[3] = t3;
+                    records = hands(records);
+                    usadas[t3]--;
+                }
+                usadas[t2]--;
+            }
+            usadas[a]--;
+            usadas[b]--;
+            records.flip();
+            return records;
+        }
+
+        private ByteBuffer hands(ByteBuffer records) {
+            for (int h0 = 0; h0 < OpeningBook.CLASES; h0++) {
+                if (usadas[h0] == copias(h0)) {
+                    continue;
+                }
+                usadas[h0]++;
+                for (int h1 = h0; h1 < OpeningBook.CLASES; h1++) {
+                    if (usadas[h1] == copias(h1)) {
+                        continue;
+                    }
+                    usadas[h1]++;
+                    for (int h2 = h1; h2 < OpeningBook.CLASES; h2++) {
+                        if (usadas[h2] == copias(h2)) {
+                            continue;
+                        }
+                        if (records.position() / OpeningBook.RECORD_BYTES >= maxOpenings) {
+                            // Con tope no hace falta evaluar más allá de lo que se va a escribir
+                            continue;
+                        }
+                        handClases[0] = h0;
+                        handClases[1] = h1;
+                        handClases[2] = h2;
+                        if (records.remaining() < OpeningBook.RECORD_BYTES) {
+                            ByteBuffer bigger = ByteBuffer.allocate(records.capacity() * 2);
+                            records.flip();
+                            bigger.put(records);
+                            records = bigger;
+                        }
+                        evaluate(records);
+                    }
+                    usadas[h1]--;
+                }
+                usadas[h0]--;
+            }
+            return records;
+        }
+
+        /**
+         * Elige la mejor jugada de la apertura actual y escribe su registro.
+         */
+        private void evaluate(ByteBuffer records) {
+            long key = OpeningBook.key(tableClases, handClases);
+
+            // Cartas concretas: las clases sin Oro toman Copa, Espada y Basto en ese orden
+            Arrays.fill(nextSuit, 1);
+            long used = 0L;
+            table.clear();
+            hand.clear();
+            for (int i = 0; i < 4; i++) {
+                int index = cardFor(tableClases[i]);
+                table.add(Card.fromIndex(index));
+                used |= 1L << index;
+            }
+            for (int i = 0; i < 3; i++) {
+                int index = cardFor(handClases[i]);
+                hand.add(Card.fromIndex(index));
+                used |= 1L << index;
+            }
+            int restSize = 0;
+            for (long m = CardMask.ALL & ~used; m != 0; m &= m - 1) {
+                restOrdered[restSize++] = (byte) Long.numberOfTrailingZeros(m);
+            }
+
+            int count = generator.generate(hand, table, moves);
+            long best = Move.NINGUNA;
+            long bestTotal = Long.MIN_VALUE;
+            for (int m = 0; m < count; m++) {
+                long total = 0;
+                for (int r = 0; r < rollouts; r++) {
+                    random.setSeed(seed ^ (key * 0x9E3779B97F4A7C15L + r));
+                    total += playOut(moves[m], restSize);
+                }
+                if (total > bestTotal) {
+                    bestTotal = total;
+                    best = moves[m];
+                }
+            }
+
+            int value = (int) Math.round(100.0 * bestTotal / rollouts);
+            records.putLong(key);
+            records.put((byte) Move.handSlot(best));
+            records.put((byte) Move.tableSlots(best));
+            records.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value)));
+        }
+
+        private int cardFor(int clase) {
+            if (clase >= 10) {
+                return clase - 10;
+            }
+            return nextSuit[clase]++ * 10 + clase;
+        }
+
+        /**
+         * Juega la mano entera con la primera jugada fija.
+         *
+         * @return Puntos del jugador 1 menos los del jugador 2
+         */
+        private int playOut(long first, int restSize) {
+            // Cada mezcla parte del mismo orden: la misma semilla da el mismo reparto a todas las jugadas
+            System.arraycopy(restOrdered, 0, rest, 0, restSize);
+            for (int i = restSize - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte t = rest[i];
+                rest[i] = rest[j];
+                rest[j] = t;
+            }
+            // Mesa, luego una carta por vuelta: mano propia y mano rival alternadas
+            for (int i = 0; i < 4; i++) {
+                order[i] = (byte) table.get(i).getIndex();
+            }
+            for (int i = 0; i < 3; i++) {
+                order[4 + 2 * i] = (byte) hand.get(i).getIndex();
+                order[5 + 2 * i] = rest[i];
+            }
+            System.arraycopy(rest, 3, order, 10, restSize - 3);
+
+            state.startNewGameFromOrder(1, order);
+            state.jugar(first);
+            while (!state.isGameOver()) {
+                int numeroJugador = state.getCurrentPlayerNumber();
+                view.copyFrom(state, numeroJugador);
+                state.jugar(runner.decide(bot, view));
+            }
+            ScoreCalculator.calculateScores(state.getPlayers(), 2, false, scores);
+            return scores[0] - scores[1];
+        }
+    }
+
+    /**
+     * Uso: OpeningBookGenerator archivo [partidas por jugada] [semilla] [tope de aperturas]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Uso: OpeningBookGenerator archivo [partidas por jugada] [semilla] [tope]");
+            System.exit(1);
+        }
+        Path path = Paths.get(args[0]);
+        int rollouts = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 15L;
+        long max = args.length > 3 ? Long.parseLong(args[3]) : Long.MAX_VALUE;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        long written = new OpeningBookGenerator(rollouts, seed, max).generate(path, threads);
+        System.out.printf("%d aperturas escritas en %s (%.1f s)%n", written, path, (System.nanoTime() - start) / 1e9);
+    }
+}
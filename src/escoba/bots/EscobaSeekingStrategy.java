@@ -0,0 +1,38 @@
+package escoba.bots;
+
+import escoba.game.Move;
+import escoba.game.PositionView;
+
+/**
+ * Bot de referencia que busca escobas y evita regalarlas.
+ *
+ * Da mucho más valor a las capturas que vacían la mesa y, al poner una carta,
+ * prefiere dejar la mesa con una suma que el rival no pueda levantar entera
+ * con una sola carta, pesando el riesgo por la probabilidad de que el próximo
+ * rival tenga la carta justa según las cartas que todavía no se vieron.
+ */
+public class EscobaSeekingStrategy extends GreedyCaptureStrategy {
+
+    @Override
+    public String getName() {
+        return "escobero";
+    }
+
+    @Override
+    protected int escobaBonus() {
+        return 200;
+    }
+
+    @Override
+    protected int placeScore(PositionView position, long move) {
+        int total = position.getHandCard(Move.handSlot(move)).getGameValue();
+        for (int i = 0; i < position.getTableSize(); i++) {
+            total += position.getTableCard(i).getGameValue();
+        }
+        int risk = 0;
+        if (total >= 5 && total <= 14) {
+            risk = (int) Math.round(50 + 50 * position.probabilityNextOpponentHolds(15 - total));
+        }
+        return super.placeScore(position, move) - risk;
+    }
+}
@@ -0,0 +1,72 @@
+package escoba.bots;
+
+import escoba.game.Move;
+import escoba.game.MoveGenerator;
+import escoba.game.PositionView;
+import escoba.game.Strategy;
+import escoba.model.Card;
+import escoba.model.CardMask;
+
+/**
+ * Bot de referencia codicioso: hace la captura que más vale ahora mismo.
+ *
+ * Una captura vale por la cantidad de cartas, los Oros, los 7 y el 7 de Oro
+ * que se lleva, más un bonus si es escoba. Si no puede capturar, pone la carta
+ * de menor valor, evitando soltar Oros y 7.
+ */
+public class GreedyCaptureStrategy implements Strategy {
+
+    private static final ThreadLocal<MoveGenerator> GENERATOR = ThreadLocal.withInitial(MoveGenerator::new);
+    private static final ThreadLocal<long[]> MOVES = ThreadLocal.withInitial(() -> new long[MoveGenerator.MAX_JUGADAS]);
+
+    @Override
+    public String getName() {
+        return "codicioso";
+    }
+
+    @Override
+    public long chooseMove(PositionView position, long deadlineNanos) {
+        long[] moves = MOVES.get();
+        int count = GENERATOR.get().generate(position, moves);
+        long best = Move.NINGUNA;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int score = Move.esCaptura(moves[i]) ? captureScore(position, moves[i]) : placeScore(position, moves[i]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Valor de una captura. Siempre mayor que el de cualquier jugada sin captura.
+     */
+    protected int captureScore(PositionView position, long move) {
+        long slots = Move.tableSlots(move);
+        long cards = position.tableCards(slots) | CardMask.bit(position.getHandCard(Move.handSlot(move)));
+        boolean escoba = Long.bitCount(slots) == position.getTableSize();
+        return 1000
+                + 10 * Long.bitCount(cards)
+                + 4 * Long.bitCount(cards & CardMask.OROS)
+                + 6 * Long.bitCount(cards & CardMask.SIETES)
+                + 20 * (int) ((cards >>> CardMask.SIETE_DE_ORO) & 1)
+                + (escoba ? escobaBonus() : 0);
+    }
+
+    protected int escobaBonus() {
+        return 30;
+    }
+
+    /**
+     * Valor de poner una carta sin capturar: conviene soltar cartas bajas y comunes.
+     */
+    protected int placeScore(PositionView position, long move) {
+        Card card = position.getHandCard(Move.handSlot(move));
+        long bit = CardMask.bit(card);
+        return -card.getGameValue()
+                - ((bit & CardMask.SIETES) != 0 ? 20 : 0)
+                - ((bit & CardMask.OROS) != 0 ? 5 : 0);
+    }
+}
@@ -0,0 +1,34 @@
+package escoba.bots;
+
+import escoba.book.OpeningBook;
+import escoba.game.Move;
+import escoba.game.PositionView;
+import escoba.game.Strategy;
+
+/**
+ * Juega la primera jugada de la mano desde un OpeningBook y el resto con otra estrategia.
+ */
+public class OpeningBookStrategy implements Strategy {
+
+    private final OpeningBook book;
+    private final Strategy fallback;
+
+    public OpeningBookStrategy(OpeningBook book, Strategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String getName() {
+        return fallback.getName() + "+libro";
+    }
+
+    @Override
+    public long chooseMove(PositionView position, long deadlineNanos) {
+        long move = book.lookup(position);
+        if (move != Move.NINGUNA && position.isLegal(move)) {
+            return move;
+        }
+        return fallback.chooseMove(position, deadlineNanos);
+    }
+}
@@ -0,0 +1,32 @@
+package escoba.bots;
+
+import escoba.game.MoveGenerator;
+import escoba.game.PositionView;
+import escoba.game.Strategy;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bot de referencia que elige una jugada legal al azar.
+ * Usa el azar de la posición si lo tiene, para que las partidas sembradas se repitan.
+ */
+public class RandomStrategy implements Strategy {
+
+    private static final ThreadLocal<MoveGenerator> GENERATOR = ThreadLocal.withInitial(MoveGenerator::new);
+    private static final ThreadLocal<long[]> MOVES = ThreadLocal.withInitial(() -> new long[MoveGenerator.MAX_JUGADAS]);
+
+    @Override
+    public String getName() {
+        return "aleatorio";
+    }
+
+    @Override
+    public long chooseMove(PositionView position, long deadlineNanos) {
+        long[] moves = MOVES.get();
+        int count = GENERATOR.get().generate(position, moves);
+        Random random = position.getRandom();
+        int i = random != null ? random.nextInt(count) : ThreadLocalRandom.current().nextInt(count);
+        return moves[i];
+    }
+}
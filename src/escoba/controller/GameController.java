@@ -1,18 +1,48 @@
 package escoba.controller;
 
+import escoba.game.CommandParser;
 import escoba.game.GameState;
+import escoba.game.HintEngine;
+import escoba.game.PositionView;
 import escoba.game.ResultadoJugada;
-import escoba.view.PlayerView;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
+import escoba.model.Card;
+import escoba.model.CardMask;
+import escoba.model.Player;
+import escoba.net.StateSync;
+import escoba.view.IPlayerView;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 public class GameController {
-    private final GameState gameState;
-    private final PlayerView view1;
-    private final PlayerView view2;
+    // Un motor por hilo: su caché sirve a todas las mesas que atiende ese hilo
+    private static final ThreadLocal<HintEngine> PISTAS = ThreadLocal.withInitial(HintEngine::new);
+    // En el hilo que llama, con 250 ms de presupuesto por decisión; no tiene
+    // hilos propios, así que una sola instancia sirve a todos los controladores
+    private static final StrategyRunner POR_DEFECTO = StrategyRunner.inline(250, TimeUnit.MILLISECONDS);
 
-    public GameController(GameState gameState, PlayerView view1, PlayerView view2) {
+    private final GameState gameState;
+    private final IPlayerView view1;
+    private final IPlayerView view2;
+    private final Strategy[] estrategias = new Strategy[2];
+    private StrategyRunner runner = POR_DEFECTO;
+    private Executor botExecutor;     // null = los bots deciden en el hilo que llama
+    private Executor tableExecutor;   // por donde vuelve la jugada del bot
+    private boolean botPensando;
+    private Random dealRandom;
+    private Runnable exitAction = () -> System.exit(0);
+    private final CommandParser parser = new CommandParser();
+    private final long[] pistas = new long[HintEngine.MAX_HINTS];
+    private final int[] valores = new int[HintEngine.MAX_HINTS];
+    private final StringBuilder linea = new StringBuilder();
+    // Última imagen mostrada a cada vista, para pasarle solo lo que cambió
+    private final StateSync[] mostrado = { new StateSync(1), new StateSync(2) };
+
+    public GameController(GameState gameState, IPlayerView view1, IPlayerView view2) {
         this.gameState = gameState;
         this.view1 = view1;
         this.view2 = view2;
@@ -22,32 +52,47 @@ public class GameController {
     }
 
     public void iniciarJuego() {
-        gameState.startNewGame();
+        gameState.startNewGame(1, dealRandom);
         actualizarAmbasVistas();
+        jugarTurnosBot();
     }
 
-    public void procesarInputJugador(int numeroJugador, String input) {
-        input = input.toLowerCase().trim();
-        if (input.isEmpty()) {
+    public void procesarInputJugador(int numeroJugador, CharSequence input) {
+        int comando = parser.parse(input);
+        if (comando == CommandParser.VACIO) {
             return;
         }
 
-        PlayerView vista = obtenerVista(numeroJugador);
+        IPlayerView vista = obtenerVista(numeroJugador);
 
         // Manejar comando salir
-        if (input.equals("salir") || input.equals("quit")) {
-            System.exit(0);
+        if (comando == CommandParser.SALIR) {
+            exitAction.run();
             return;
         }
 
         // Manejar comando ayuda - preguntar al modelo por comandos disponibles
-        if (input.equals("ayuda") || input.equals("help")) {
+        if (comando == CommandParser.AYUDA) {
             mostrarAyuda(numeroJugador);
             return;
         }
 
+        // Manejar comando pista - sugerir capturas al jugador de turno
+        if (comando == CommandParser.PISTA) {
+            if (!gameState.puedeJugadorActuar(numeroJugador)) {
+                if (gameState.isGameOver()) {
+                    vista.displayError("El juego terminó. Escribe 'nueva' para iniciar una nueva partida.");
+                } else {
+                    vista.displayError("¡No es tu turno!");
+                }
+                return;
+            }
+            mostrarPistas(numeroJugador);
+            return;
+        }
+
         // Manejar comando nueva partida - solo válido cuando el juego terminó
-        if (input.equals("nueva") || input.equals("new")) {
+        if (comando == CommandParser.NUEVA) {
             if (gameState.isGameOver()) {
                 vista.displayMessage("Iniciando nueva partida...");
                 iniciarJuego();
@@ -58,7 +103,7 @@ public class GameController {
         }
 
         // Manejar comandos de juego - solo válidos durante el juego
-        if (input.startsWith("jugar ") || input.startsWith("play ")) {
+        if (comando == CommandParser.JUGAR) {
             // Preguntar al modelo si el jugador puede actuar
             if (!gameState.puedeJugadorActuar(numeroJugador)) {
                 if (gameState.isGameOver()) {
@@ -68,7 +113,7 @@ public class GameController {
                 }
                 return;
             }
-            manejarComandoJugar(numeroJugador, input);
+            manejarComandoJugar(numeroJugador);
             return;
         }
 
@@ -76,69 +121,158 @@ public class GameController {
         vista.displayError("Comando desconocido. Escribe 'ayuda' para ver instrucciones.");
     }
 
-    private void manejarComandoJugar(int numeroJugador, String input) {
-        PlayerView vista = obtenerVista(numeroJugador);
-        String[] partes = input.split(" ");
-
-        if (partes.length < 2) {
-            vista.displayError("Uso: jugar <carta#> [llevar <mesa#> ...]");
+    private void manejarComandoJugar(int numeroJugador) {
+        if (parser.getError() != CommandParser.OK) {
+            obtenerVista(numeroJugador).displayError(CommandParser.mensajeError(parser.getError()));
             return;
         }
+        if (parser.getTableSlots() == 0) {
+            ejecutarColocarCarta(numeroJugador, parser.getHandIndex());
+        } else {
+            ejecutarCaptura(numeroJugador, parser.getHandIndex(), parser.getTableSlots());
+        }
+    }
 
-        try {
-            int indiceCarta = Integer.parseInt(partes[1]) - 1;
-            // Verificar si hay captura
-            if (partes.length > 2 && (partes[2].equals("llevar") || partes[2].equals("take"))) {
-                // Parsear índices de mesa
-                List<Integer> indicesMesa = new ArrayList<>();
-                for (int i = 3; i < partes.length; i++) {
-                    indicesMesa.add(Integer.parseInt(partes[i]) - 1);
-                }
-                ejecutarCaptura(numeroJugador, indiceCarta, indicesMesa);
-            } else {
-                ejecutarColocarCarta(numeroJugador, indiceCarta);
-            }
+    private void ejecutarColocarCarta(int numeroJugador, int indiceCarta) {
+        if (mostrarResultado(numeroJugador, gameState.jugarCarta(indiceCarta))) {
+            jugarTurnosBot();
+        }
+    }
 
-        } catch (NumberFormatException e) {
-            vista.displayError("¡Comando inválido! Usa: jugar <carta#> [llevar <mesa#> ...]");
+    private void ejecutarCaptura(int numeroJugador, int indiceCarta, long posicionesMesa) {
+        if (mostrarResultado(numeroJugador, gameState.intentarCaptura(indiceCarta, posicionesMesa))) {
+            jugarTurnosBot();
         }
     }
 
-    private void ejecutarColocarCarta(int numeroJugador, int indiceCarta) {
-        PlayerView vista = obtenerVista(numeroJugador);
-        ResultadoJugada resultado = gameState.jugarCarta(indiceCarta);
+    /**
+     * Muestra el resultado de una jugada y refresca las vistas.
+     *
+     * @return true si la jugada fue válida
+     */
+    private boolean mostrarResultado(int numeroJugador, ResultadoJugada resultado) {
+        IPlayerView vista = obtenerVista(numeroJugador);
 
-        if (resultado.isExito()) {
-            vista.displayMessage(resultado.getMensaje());
-            if (resultado.isJuegoTerminado()) {
-                mostrarFinJuego();
-            } else {
-                actualizarAmbasVistas();
-            }
-        } else {
+        if (!resultado.isExito()) {
             vista.displayError(resultado.getMensaje());
+            return false;
         }
+
+        vista.displayMessage(resultado.getMensaje());
+        if (resultado.isEsEscoba()) {
+            vista.displayMessage("*** ¡ESCOBA! ***");
+        }
+        if (resultado.isJuegoTerminado()) {
+            mostrarFinJuego();
+        } else {
+            actualizarAmbasVistas();
+        }
+        return true;
     }
 
-    private void ejecutarCaptura(int numeroJugador, int indiceCarta, List<Integer> indicesMesa) {
-        PlayerView vista = obtenerVista(numeroJugador);
-        ResultadoJugada resultado = gameState.intentarCaptura(indiceCarta, indicesMesa);
+    /**
+     * Asigna una estrategia automática a un jugador, que deja de esperar input de su vista.
+     *
+     * @param numeroJugador Jugador a reemplazar (1 o 2)
+     * @param estrategia Estrategia a usar, o null para volver al jugador humano
+     */
+    public void asignarEstrategia(int numeroJugador, Strategy estrategia) {
+        estrategias[numeroJugador - 1] = estrategia;
+    }
 
-        if (resultado.isExito()) {
-            vista.displayMessage(resultado.getMensaje());
-            if (resultado.isEsEscoba()) {
-                vista.displayMessage("*** ¡ESCOBA! ***");
+    /**
+     * Reemplaza el ejecutor de estrategias (plazo por decisión y métricas).
+     * Por defecto los bots deciden en el hilo que llama con 250 ms de
+     * presupuesto, que no se puede cortar. Un runner con plazo duro tiene su
+     * propio pool de hilos: conviene compartir uno entre todos los
+     * controladores y cerrarlo con shutdown() al terminar.
+     */
+    public void setStrategyRunner(StrategyRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Saca las decisiones de los bots del hilo que procesa el input.
+     *
+     * Sin esto, los turnos de bot corren dentro de procesarInputJugador e
+     * iniciarJuego y ocupan al hilo que llama hasta que el bot decide. Con
+     * esto, la decisión corre en el executor de decisiones y la jugada se
+     * aplica con una tarea en el executor de la mesa (el mismo hilo lógico
+     * que procesa el input). TableActor lo configura para sus mesas.
+     *
+     * @param decisiones Donde corren las decisiones (con el runner configurado)
+     * @param mesa Donde se aplican las jugadas decididas
+     */
+    public void setBotExecutor(Executor decisiones, Executor mesa) {
+        this.botExecutor = decisiones;
+        this.tableExecutor = mesa;
+    }
+
+    public StrategyRunner getStrategyRunner() {
+        return runner;
+    }
+
+    /**
+     * Generador para mezclar el mazo en cada partida nueva; con una semilla fija
+     * los repartos se repiten. null vuelve a la mezcla normal.
+     */
+    public void setDealRandom(Random dealRandom) {
+        this.dealRandom = dealRandom;
+    }
+
+    /**
+     * Acción del comando salir. Por defecto termina la aplicación.
+     */
+    public void setExitAction(Runnable exitAction) {
+        this.exitAction = exitAction;
+    }
+
+    /**
+     * Juega los turnos de los jugadores automáticos hasta que le toque a un humano.
+     */
+    private void jugarTurnosBot() {
+        while (!gameState.isGameOver()) {
+            int numeroJugador = gameState.getCurrentPlayerNumber();
+            Strategy estrategia = estrategias[numeroJugador - 1];
+            if (estrategia == null) {
+                return;
             }
-            if (resultado.isJuegoTerminado()) {
-                mostrarFinJuego();
-            } else {
-                actualizarAmbasVistas();
+            if (botExecutor != null) {
+                pedirJugadaBot(numeroJugador, estrategia);
+                return;
+            }
+            long jugada = runner.decide(estrategia, PositionView.of(gameState, numeroJugador));
+            if (!mostrarResultado(numeroJugador, gameState.jugar(jugada))) {
+                return;
             }
-        } else {
-            vista.displayError(resultado.getMensaje());
         }
     }
 
+    private void pedirJugadaBot(int numeroJugador, Strategy estrategia) {
+        if (botPensando) {
+            return;     // ya hay una decisión en curso para esta mesa
+        }
+        botPensando = true;
+        PositionView posicion = PositionView.of(gameState, numeroJugador);
+        long version = gameState.getVersion();
+        StrategyRunner ejecutor = runner;
+        Executor mesa = tableExecutor;
+        botExecutor.execute(() -> {
+            long jugada = ejecutor.decide(estrategia, posicion);
+            mesa.execute(() -> aplicarJugadaBot(numeroJugador, version, jugada));
+        });
+    }
+
+    private void aplicarJugadaBot(int numeroJugador, long version, long jugada) {
+        botPensando = false;
+        // Si la partida cambió mientras el bot pensaba, la jugada ya no corresponde
+        if (gameState.getVersion() == version && gameState.getCurrentPlayerNumber() == numeroJugador
+                && !mostrarResultado(numeroJugador, gameState.jugar(jugada))) {
+            return;
+        }
+        jugarTurnosBot();
+    }
+
     private void mostrarFinJuego() {
         // Obtener resumen del juego desde el modelo
         String[] lineas = gameState.obtenerResumenFinJuego();
@@ -157,7 +291,7 @@ public class GameController {
     }
 
     private void mostrarAyuda(int numeroJugador) {
-        PlayerView vista = obtenerVista(numeroJugador);
+        IPlayerView vista = obtenerVista(numeroJugador);
 
         // Preguntar al modelo por comandos disponibles según el estado del juego
         String[] comandos = gameState.obtenerComandosDisponibles();
@@ -185,22 +319,96 @@ public class GameController {
         }
     }
 
+    private void mostrarPistas(int numeroJugador) {
+        IPlayerView vista = obtenerVista(numeroJugador);
+        Player jugador = gameState.getPlayer(numeroJugador);
+        List<Card> mano = jugador.getHand();
+        List<Card> mesa = gameState.getTable();
+
+        long mascaraMesa = CardMask.of(mesa);
+        HintEngine motor = PISTAS.get();
+        int n = motor.hints(jugador.getHandMask(), mascaraMesa, pistas, valores);
+        if (n == 0) {
+            vista.displayMessage("No hay capturas posibles: tendrás que poner una carta en la mesa.");
+            return;
+        }
+
+        vista.displayMessage("Capturas posibles (de mejor a peor):");
+        for (int i = 0; i < n; i++) {
+            linea.setLength(0);
+            linea.append("  jugar ").append(posicion(mano, HintEngine.handCard(pistas[i])) + 1).append(" llevar");
+            long cartas = HintEngine.tableCards(pistas[i]);
+            for (int pos = 0; pos < mesa.size(); pos++) {
+                if ((cartas & CardMask.bit(mesa.get(pos))) != 0) {
+                    linea.append(' ').append(pos + 1);
+                }
+            }
+            linea.append("  (");
+            appendPuntos(linea, valores[i]);
+            linea.append(" puntos)");
+            if (cartas == mascaraMesa) {
+                linea.append("  ¡ESCOBA!");
+            }
+            vista.displayMessage(linea.toString());
+        }
+        int resto = motor.getLastTotal() - n;
+        if (resto > 0) {
+            linea.setLength(0);
+            linea.append("  ... y ").append(resto).append(resto == 1 ? " captura más" : " capturas más")
+                    .append(" de menor valor");
+            vista.displayMessage(linea.toString());
+        }
+    }
+
+    // Centésimos de punto con signo y dos decimales, como "%+.2f" sin formatear
+    private static void appendPuntos(StringBuilder sb, int centesimos) {
+        int abs = Math.abs(centesimos);
+        sb.append(centesimos < 0 ? '-' : '+').append(abs / 100).append('.');
+        if (abs % 100 < 10) {
+            sb.append('0');
+        }
+        sb.append(abs % 100);
+    }
+
+    private static int posicion(List<Card> cartas, int indice) {
+        for (int i = 0; i < cartas.size(); i++) {
+            if (cartas.get(i).getIndex() == indice) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private void actualizarAmbasVistas() {
-        actualizarVista(1);
-        actualizarVista(2);
+        actualizarCambios(1);
+        actualizarCambios(2);
     }
 
+    // Redibuja todo, por ejemplo después de la ayuda
     private void actualizarVista(int numeroJugador) {
-        PlayerView vista = obtenerVista(numeroJugador);
-        escoba.model.Player jugador = (numeroJugador == 1) ? gameState.getPlayer1() : gameState.getPlayer2();
-        escoba.model.Player oponente = (numeroJugador == 1) ? gameState.getPlayer2() : gameState.getPlayer1();
+        IPlayerView vista = obtenerVista(numeroJugador);
+        Player jugador = (numeroJugador == 1) ? gameState.getPlayer1() : gameState.getPlayer2();
+        Player oponente = (numeroJugador == 1) ? gameState.getPlayer2() : gameState.getPlayer1();
         boolean esTurnoActual = gameState.getCurrentPlayerNumber() == numeroJugador;
 
+        mostrado[numeroJugador - 1].refresh(gameState);
         vista.displayGameState(gameState.getTable(), jugador, oponente,
                               gameState.getDeckSize(), esTurnoActual);
     }
 
-    private PlayerView obtenerVista(int numeroJugador) {
+    // Después de una jugada: la vista recibe qué partes cambiaron desde lo último que mostró
+    private void actualizarCambios(int numeroJugador) {
+        IPlayerView vista = obtenerVista(numeroJugador);
+        Player jugador = (numeroJugador == 1) ? gameState.getPlayer1() : gameState.getPlayer2();
+        Player oponente = (numeroJugador == 1) ? gameState.getPlayer2() : gameState.getPlayer1();
+        boolean esTurnoActual = gameState.getCurrentPlayerNumber() == numeroJugador;
+
+        int cambios = mostrado[numeroJugador - 1].refresh(gameState);
+        vista.displayChanges(cambios, gameState.getTable(), jugador, oponente,
+                             gameState.getDeckSize(), esTurnoActual);
+    }
+
+    private IPlayerView obtenerVista(int numeroJugador) {
         return numeroJugador == 1 ? view1 : view2;
     }
 }
@@ -0,0 +1,138 @@
+package escoba.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eventos de JDK Flight Recorder para las acciones del juego.
+ *
+ * Vienen apagados (@Enabled(false)): mientras ninguna grabación los active,
+ * JFR no instrumenta la clase, shouldCommit() es false y el JIT elimina el
+ * objeto, así que emitirlos no cuesta nada. Se encienden en caliente con
+ * startRecording(), con jcmd PID JFR.start settings=archivo.jfc que ponga
+ * enabled=true en "escoba.*", o con cualquier Recording que los habilite.
+ *
+ * Uso en el código que emite:
+ * <pre>
+ *     FlightEvents.CardPlaced e = new FlightEvents.CardPlaced();
+ *     if (e.shouldCommit()) {
+ *         e.player = ...;
+ *         e.commit();
+ *     }
+ * </pre>
+ */
+public final class FlightEvents {
+
+    /** Nombres de todos los eventos del juego, para habilitarlos en una grabación. */
+    public static final String[] NAMES = {
+        "escoba.GameStarted", "escoba.Deal", "escoba.CardPlaced", "escoba.Capture", "escoba.GameOver",
+        "framework.ObserverDispatch"
+    };
+
+    private FlightEvents() {
+    }
+
+    @Name("escoba.GameStarted")
+    @Label("Partida iniciada")
+    @Category({"Escoba", "Partida"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class GameStarted extends Event {
+        @Label("Jugadores")
+        public int players;
+
+        @Label("Primer jugador")
+        public int firstPlayer;
+
+        @Label("Por parejas")
+        public boolean teamPlay;
+    }
+
+    @Name("escoba.Deal")
+    @Label("Reparto")
+    @Description("Tres cartas a cada jugador")
+    @Category({"Escoba", "Partida"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Deal extends Event {
+        @Label("Cartas repartidas")
+        public int cardsDealt;
+
+        @Label("Cartas en el mazo")
+        public int deckSize;
+    }
+
+    @Name("escoba.CardPlaced")
+    @Label("Carta a la mesa")
+    @Category({"Escoba", "Jugada"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class CardPlaced extends Event {
+        @Label("Jugador")
+        public int player;
+
+        @Label("Carta")
+        public String card;
+
+        @Label("Cartas en la mesa")
+        public int tableSize;
+    }
+
+    @Name("escoba.Capture")
+    @Label("Captura")
+    @Category({"Escoba", "Jugada"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Capture extends Event {
+        @Label("Jugador")
+        public int player;
+
+        @Label("Carta jugada")
+        public String card;
+
+        @Label("Cartas levantadas")
+        @Description("Cartas de la mesa que forman 15 con la carta jugada")
+        public int subsetSize;
+
+        @Label("Escoba")
+        public boolean escoba;
+    }
+
+    @Name("escoba.GameOver")
+    @Label("Partida terminada")
+    @Category({"Escoba", "Partida"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class GameOver extends Event {
+        @Label("Puntajes")
+        @Description("Puntaje final de cada jugador en orden de asiento, separados por espacios")
+        public String scores;
+
+        @Label("Ganador")
+        @Description("Número del jugador con más puntos (con parejas, 1 o 2 por pareja), o 0 si hay empate")
+        public int winner;
+
+        @Label("Versión del estado")
+        public long version;
+    }
+
+    /**
+     * Crea y arranca una grabación con todos los eventos del juego habilitados.
+     * Detenerla con stop() y guardarla con dump(Path).
+     */
+    public static Recording startRecording() {
+        Recording recording = new Recording();
+        recording.setName("escoba");
+        for (String name : NAMES) {
+            recording.enable(name);
+        }
+        recording.start();
+        return recording;
+    }
+}
@@ -0,0 +1,97 @@
+package escoba.game;
+
+import escoba.model.Card;
+import escoba.model.CardMask;
+
+/**
+ * Lo que un jugador sabe de las cartas que todavía no vio.
+ *
+ * Las cartas no vistas son las de las manos ajenas más las del mazo. GameState
+ * mantiene un tracker por jugador y lo actualiza con cada reparto, carta puesta
+ * y captura: cada evento marca una carta como vista en O(1) y sin crear objetos,
+ * así las estrategias leen la máscara y el histograma de valores sin recorrer
+ * mesa, manos y capturas en cada turno.
+ */
+public final class CardTracker {
+
+    private long unseen;
+    private int unseenCount;
+    // Cartas no vistas por valor de juego (posiciones 1 a 10)
+    private final int[] byValue = new int[11];
+
+    public CardTracker() {
+        reset();
+    }
+
+    /**
+     * Vuelve al inicio de una mano: todas las cartas sin ver.
+     */
+    public void reset() {
+        unseen = CardMask.ALL;
+        unseenCount = Card.TOTAL_CARTAS;
+        for (int v = 1; v <= 10; v++) {
+            byValue[v] = 4;
+        }
+    }
+
+    /**
+     * Marca una carta como vista. Ver dos veces la misma carta no tiene efecto.
+     */
+    public void see(int cardIndex) {
+        long bit = 1L << cardIndex;
+        if ((unseen & bit) != 0) {
+            unseen &= ~bit;
+            unseenCount--;
+            byValue[CardMask.gameValue(cardIndex)]--;
+        }
+    }
+
+    /**
+     * Copia el estado de otro tracker.
+     */
+    public void copyFrom(CardTracker other) {
+        unseen = other.unseen;
+        unseenCount = other.unseenCount;
+        System.arraycopy(other.byValue, 0, byValue, 0, byValue.length);
+    }
+
+    /** Máscara de las cartas no vistas (manos ajenas y mazo). */
+    public long getUnseenMask() {
+        return unseen;
+    }
+
+    public int getUnseenCount() {
+        return unseenCount;
+    }
+
+    /**
+     * Cartas no vistas de un valor de juego (1 a 10).
+     */
+    public int getUnseenCount(int value) {
+        return byValue[value];
+    }
+
+    /**
+     * Probabilidad de que una mano de handSize cartas, tomada de las no vistas,
+     * tenga al menos una carta del valor dado (distribución hipergeométrica).
+     */
+    public double probabilityHolds(int value, int handSize) {
+        if (value < 1 || value > 10) {
+            return 0.0;
+        }
+        int matching = byValue[value];
+        int pool = unseenCount;
+        if (matching == 0 || handSize <= 0) {
+            return 0.0;
+        }
+        if (handSize > pool - matching) {
+            return 1.0;
+        }
+        // P(ninguna) = C(pool - matching, h) / C(pool, h), producto de h factores
+        double none = 1.0;
+        for (int i = 0; i < handSize; i++) {
+            none *= (double) (pool - matching - i) / (pool - i);
+        }
+        return 1.0 - none;
+    }
+}
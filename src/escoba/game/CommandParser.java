@@ -0,0 +1,252 @@
+package escoba.game;
+
+/**
+ * Analizador de los comandos que escribe un jugador, en español o en inglés.
+ *
+ * Recorre el texto una sola vez sin crear objetos: no hace trim(), split() ni
+ * toLowerCase(), compara las palabras clave sin distinguir mayúsculas y
+ * convierte los números de la mesa directamente en una máscara de posiciones
+ * (la misma que usa Move). Rechaza números de mesa repetidos. Guarda el
+ * resultado del último análisis, así que no es seguro entre hilos: usar una
+ * instancia por mesa o por hilo.
+ *
+ * Comandos: salir/quit, ayuda/help, nueva/new, pista/hint y
+ * jugar/play <carta#> [llevar/take <mesa#> ...].
+ */
+public final class CommandParser {
+
+    public static final int VACIO = 0;
+    public static final int DESCONOCIDO = 1;
+    public static final int SALIR = 2;
+    public static final int AYUDA = 3;
+    public static final int NUEVA = 4;
+    public static final int PISTA = 5;
+    public static final int JUGAR = 6;
+
+    /** Errores de un comando jugar. */
+    public static final int OK = 0;
+    public static final int ERROR_USO = 1;
+    public static final int ERROR_NUMERO = 2;
+    public static final int ERROR_REPETIDA = 3;
+    public static final int ERROR_MESA = 4;
+
+    // Número más grande que se acepta antes de darlo por inválido
+    private static final int MAX_NUMERO = 1000;
+
+    private int command;
+    private int error;
+    private int handIndex;
+    private long tableSlots;
+
+    // Posición del recorrido en curso
+    private CharSequence text;
+    private int pos;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * Analiza un comando.
+     *
+     * @return El comando reconocido (VACIO, DESCONOCIDO, SALIR, ...)
+     */
+    public int parse(CharSequence input) {
+        text = input;
+        pos = 0;
+        error = OK;
+        handIndex = -1;
+        tableSlots = 0L;
+        command = keyword();
+        if (command == JUGAR) {
+            parsePlay();
+        } else if (command != VACIO && command != DESCONOCIDO && nextToken()) {
+            // Los comandos sin argumentos no aceptan nada más
+            command = DESCONOCIDO;
+        }
+        text = null;
+        return command;
+    }
+
+    /**
+     * Solo la palabra clave del comando, sin guardar nada.
+     * Un comando sin argumentos seguido de más texto es DESCONOCIDO.
+     */
+    public static int keyword(CharSequence input) {
+        int i = skipSpaces(input, 0);
+        int start = i;
+        while (i < input.length() && !isSpace(input.charAt(i))) {
+            i++;
+        }
+        int command = classify(input, start, i);
+        if (command != VACIO && command != DESCONOCIDO && command != JUGAR
+                && skipSpaces(input, i) < input.length()) {
+            return DESCONOCIDO;
+        }
+        return command;
+    }
+
+    public int getCommand() {
+        return command;
+    }
+
+    /** Error del último comando jugar, u OK. */
+    public int getError() {
+        return error;
+    }
+
+    /** Índice (desde 0) de la carta de la mano. */
+    public int getHandIndex() {
+        return handIndex;
+    }
+
+    /** Máscara de posiciones de la mesa a llevar; 0 si solo se pone la carta. */
+    public long getTableSlots() {
+        return tableSlots;
+    }
+
+    /**
+     * Jugada analizada codificada con Move, o Move.NINGUNA si hubo error.
+     */
+    public long getMove() {
+        if (command != JUGAR || error != OK || handIndex < 0) {
+            return Move.NINGUNA;
+        }
+        return tableSlots == 0 ? Move.colocar(handIndex) : Move.capturar(handIndex, tableSlots);
+    }
+
+    /**
+     * Mensaje para mostrar al jugador por un error de jugar.
+     */
+    public static String mensajeError(int error) {
+        switch (error) {
+            case ERROR_USO: return "Uso: jugar <carta#> [llevar <mesa#> ...]";
+            case ERROR_REPETIDA: return "¡Cada carta de la mesa se puede llevar una sola vez!";
+            case ERROR_MESA: return "¡Número de carta de mesa inválido!";
+            default: return "¡Comando inválido! Usa: jugar <carta#> [llevar <mesa#> ...]";
+        }
+    }
+
+    private int keyword() {
+        if (!nextToken()) {
+            return VACIO;
+        }
+        return classify(text, tokenStart, tokenEnd);
+    }
+
+    private void parsePlay() {
+        if (!nextToken()) {
+            error = ERROR_USO;
+            return;
+        }
+        int card = number();
+        if (card < 0) {
+            error = ERROR_NUMERO;
+            return;
+        }
+        // La carta va desde 0; un 0 escrito queda en -1 y GameState lo rechaza
+        handIndex = card - 1;
+        if (!nextToken()) {
+            return;
+        }
+        if (!matches(text, tokenStart, tokenEnd, "llevar") && !matches(text, tokenStart, tokenEnd, "take")) {
+            error = ERROR_NUMERO;
+            return;
+        }
+        if (!nextToken()) {
+            error = ERROR_USO;
+            return;
+        }
+        do {
+            int slot = number();
+            if (slot < 0) {
+                error = ERROR_NUMERO;
+                return;
+            }
+            if (slot < 1 || slot > Long.SIZE) {
+                error = ERROR_MESA;
+                return;
+            }
+            long bit = 1L << (slot - 1);
+            if ((tableSlots & bit) != 0) {
+                error = ERROR_REPETIDA;
+                return;
+            }
+            tableSlots |= bit;
+        } while (nextToken());
+    }
+
+    /** Número del token actual, o -1 si no es un número. */
+    private int number() {
+        int value = 0;
+        for (int i = tokenStart; i < tokenEnd; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = Math.min(value * 10 + (c - '0'), MAX_NUMERO);
+        }
+        return value;
+    }
+
+    private boolean nextToken() {
+        pos = skipSpaces(text, pos);
+        if (pos >= text.length()) {
+            return false;
+        }
+        tokenStart = pos;
+        while (pos < text.length() && !isSpace(text.charAt(pos))) {
+            pos++;
+        }
+        tokenEnd = pos;
+        return true;
+    }
+
+    private static int classify(CharSequence s, int start, int end) {
+        if (start == end) {
+            return VACIO;
+        }
+        if (matches(s, start, end, "jugar") || matches(s, start, end, "play")) {
+            return JUGAR;
+        }
+        if (matches(s, start, end, "salir") || matches(s, start, end, "quit")) {
+            return SALIR;
+        }
+        if (matches(s, start, end, "ayuda") || matches(s, start, end, "help")) {
+            return AYUDA;
+        }
+        if (matches(s, start, end, "nueva") || matches(s, start, end, "new")) {
+            return NUEVA;
+        }
+        if (matches(s, start, end, "pista") || matches(s, start, end, "hint")) {
+            return PISTA;
+        }
+        return DESCONOCIDO;
+    }
+
+    /** Compara sin distinguir mayúsculas (las palabras clave son ASCII en minúscula). */
+    private static boolean matches(CharSequence s, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = s.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpaces(CharSequence s, int i) {
+        while (i < s.length() && isSpace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+}
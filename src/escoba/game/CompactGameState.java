@@ -0,0 +1,469 @@
+package escoba.game;
+
+import escoba.model.Card;
+import escoba.model.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mesa en juego en pocos longs e ints, con las mismas reglas y accesores de GameState.
+ *
+ * GameState guarda un Deck con su lista, un Player con dos listas por jugador,
+ * un CardTracker por jugador y la lista de observadores. Acá cada carta es un
+ * índice de 6 bits (Card.getIndex()):
+ *  - el mazo (en orden de salida) y la mesa (en orden de llegada) van
+ *    empaquetados de a 10 cartas por long;
+ *  - la mano de cada jugador entra en un int junto con sus escobas;
+ *  - las capturas de cada jugador son una máscara.
+ * Así una mesa de 2 jugadores ocupa unos 200 bytes en lugar de varios KB.
+ *
+ * Las jugadas dan los mismos resultados y mensajes que en GameState y las
+ * posiciones de mano y mesa se numeran igual, así que la misma secuencia de
+ * jugadas lleva a la misma partida. No tiene observadores ni rastreo de
+ * cartas: para mostrarla o conectarle vistas, copyTo() la vuelca en un
+ * GameState. Los accesores que devuelven listas las crean en cada llamada;
+ * los de máscaras no crean objetos.
+ */
+public final class CompactGameState {
+
+    private static final int BITS = 6;
+    private static final int POR_PALABRA = 10;
+    private static final int MAZO = 0;  // Palabras 0-3 de cards
+    private static final int MESA = 4;  // Palabras 4-7 de cards
+
+    // Mano empaquetada en seats[i]: cartas en los bits 0-17, cantidad en 18-19, escobas desde el 20
+    private static final int MANO_CANTIDAD = 18;
+    private static final int MANO_ESCOBAS = 20;
+
+    private final long[] cards = new long[8];
+    private final long[] captured;
+    private final int[] seats;
+    private final int numPlayers;
+    private final boolean teamPlay;
+    private long tableMask;
+    private long version;
+    private int deckPos;
+    private int deckEnd;
+    private int tableSize;
+    private int currentIndex;
+    private boolean gameOver;
+
+    public CompactGameState() {
+        this(2, false);
+    }
+
+    /**
+     * @param numPlayers Cantidad de jugadores (2 a 4)
+     * @param teamPlay Si se juega por parejas (solo con 4 jugadores)
+     * @throws IllegalArgumentException si la combinación no es válida
+     */
+    public CompactGameState(int numPlayers, boolean teamPlay) {
+        if (numPlayers < GameState.MIN_JUGADORES || numPlayers > GameState.MAX_JUGADORES) {
+            throw new IllegalArgumentException("Cantidad de jugadores inválida: " + numPlayers);
+        }
+        if (teamPlay && numPlayers != 4) {
+            throw new IllegalArgumentException("El juego por parejas requiere 4 jugadores");
+        }
+        this.numPlayers = numPlayers;
+        this.teamPlay = teamPlay;
+        this.captured = new long[numPlayers];
+        this.seats = new int[numPlayers];
+    }
+
+    /**
+     * Inicia una mano nueva. Con el mismo generador da el mismo reparto que
+     * GameState.startNewGame(int, Random).
+     *
+     * @param firstPlayerNumber Jugador que juega primero
+     * @param random Generador para mezclar el mazo
+     */
+    public void startNewGame(int firstPlayerNumber, Random random) {
+        for (int i = 0; i < Card.TOTAL_CARTAS; i++) {
+            set(MAZO, i, i);
+        }
+        // Mismo recorrido que Collections.shuffle sobre una lista de acceso directo
+        for (int i = Card.TOTAL_CARTAS; i > 1; i--) {
+            int j = random.nextInt(i);
+            int t = get(MAZO, i - 1);
+            set(MAZO, i - 1, get(MAZO, j));
+            set(MAZO, j, t);
+        }
+        deckPos = 0;
+        deckEnd = Card.TOTAL_CARTAS;
+        deal(firstPlayerNumber);
+    }
+
+    /**
+     * Inicia una mano nueva con el mazo en un orden dado (ver GameState.startNewGameFromOrder).
+     */
+    public void startNewGameFromOrder(int firstPlayerNumber, byte[] cardOrder) {
+        for (int i = 0; i < Card.TOTAL_CARTAS; i++) {
+            set(MAZO, i, cardOrder[i]);
+        }
+        deckPos = 0;
+        deckEnd = Card.TOTAL_CARTAS;
+        deal(firstPlayerNumber);
+    }
+
+    private void deal(int firstPlayerNumber) {
+        tableSize = 0;
+        tableMask = 0L;
+        for (int i = 0; i < numPlayers; i++) {
+            captured[i] = 0L;
+            seats[i] = 0;
+        }
+        currentIndex = firstPlayerNumber - 1;
+        gameOver = false;
+
+        for (int i = 0; i < 4 && deckPos < deckEnd; i++) {
+            addToTable(get(MAZO, deckPos++));
+        }
+        dealCardsToPlayers();
+    }
+
+    private void dealCardsToPlayers() {
+        // Una carta por vuelta a cada jugador, como en GameState
+        for (int i = 0; i < 3; i++) {
+            for (int p = 0; p < numPlayers && deckPos < deckEnd; p++) {
+                int seat = seats[p];
+                int n = handSize(seat);
+                seats[p] = seat & ~(3 << MANO_CANTIDAD) | get(MAZO, deckPos++) << (n * BITS)
+                        | (n + 1) << MANO_CANTIDAD;
+            }
+        }
+        version++;
+    }
+
+    /**
+     * Pone una carta de la mano del jugador actual en la mesa.
+     *
+     * @param cardIndex Índice de la carta en la mano
+     */
+    public ResultadoJugada jugarCarta(int cardIndex) {
+        int seat = seats[currentIndex];
+        if (cardIndex < 0 || cardIndex >= handSize(seat)) {
+            return ResultadoJugada.error("Índice de carta inválido");
+        }
+
+        int card = removeFromHand(currentIndex, cardIndex);
+        String mensaje = "Pusiste " + Card.fromIndex(card) + " en la mesa";
+        addToTable(card);
+        version++;
+
+        if (!nextTurn()) {
+            return ResultadoJugada.exitoFinJuego(mensaje);
+        }
+        return ResultadoJugada.exitoSimple(mensaje);
+    }
+
+    /**
+     * Captura con una carta de la mano las cartas de la mesa indicadas por
+     * una máscara de posiciones (ver GameState.intentarCaptura(int, long)).
+     */
+    public ResultadoJugada intentarCaptura(int cardIndex, long tableSlots) {
+        int seat = seats[currentIndex];
+        if (cardIndex < 0 || cardIndex >= handSize(seat)) {
+            return ResultadoJugada.error("Índice de carta inválido");
+        }
+        if (64 - Long.numberOfLeadingZeros(tableSlots) > tableSize) {
+            return ResultadoJugada.error("¡Número de carta de mesa inválido! La mesa tiene " + tableSize + " cartas.");
+        }
+
+        int played = handCard(seat, cardIndex);
+        int sum = Card.fromIndex(played).getGameValue();
+        for (long slots = tableSlots; slots != 0; slots &= slots - 1) {
+            sum += Card.fromIndex(get(MESA, Long.numberOfTrailingZeros(slots))).getGameValue();
+        }
+        if (sum != 15) {
+            return ResultadoJugada.error("¡Las cartas no suman 15! Tu suma = " + sum);
+        }
+
+        StringBuilder mensaje = new StringBuilder("¡Capturado! ").append(Card.fromIndex(played)).append(" + [");
+        for (long slots = tableSlots; slots != 0; slots &= slots - 1) {
+            mensaje.append(Card.fromIndex(get(MESA, Long.numberOfTrailingZeros(slots))));
+            if ((slots & (slots - 1)) != 0) {
+                mensaje.append(", ");
+            }
+        }
+        mensaje.append("] = 15");
+
+        removeFromHand(currentIndex, cardIndex);
+        captured[currentIndex] |= 1L << played;
+        removeFromTable(tableSlots, currentIndex);
+
+        boolean esEscoba = tableSize == 0;
+        if (esEscoba) {
+            seats[currentIndex] += 1 << MANO_ESCOBAS;
+        }
+        version++;
+
+        if (!nextTurn()) {
+            return ResultadoJugada.exitoFinJuego(mensaje.toString());
+        }
+        if (esEscoba) {
+            return ResultadoJugada.exitoConEscoba(mensaje.toString());
+        }
+        return ResultadoJugada.exitoSimple(mensaje.toString());
+    }
+
+    /**
+     * Aplica una jugada codificada con Move.
+     */
+    public ResultadoJugada jugar(long move) {
+        if (move == Move.NINGUNA) {
+            return ResultadoJugada.error("Jugada inválida");
+        }
+        if (Move.esCaptura(move)) {
+            return intentarCaptura(Move.handSlot(move), Move.tableSlots(move));
+        }
+        return jugarCarta(Move.handSlot(move));
+    }
+
+    private boolean nextTurn() {
+        int inHand = 0;
+        for (int i = 0; i < numPlayers; i++) {
+            inHand |= seats[i] & (3 << MANO_CANTIDAD);
+        }
+        if (inHand == 0) {
+            if (deckPos == deckEnd) {
+                // El último jugador se lleva las cartas restantes de la mesa
+                captured[currentIndex] |= tableMask;
+                tableMask = 0L;
+                tableSize = 0;
+                gameOver = true;
+                version++;
+                return false;
+            }
+            dealCardsToPlayers();
+        }
+        currentIndex = currentIndex + 1 == numPlayers ? 0 : currentIndex + 1;
+        return true;
+    }
+
+    // --- Cartas empaquetadas ---
+
+    private int get(int base, int i) {
+        return (int) (cards[base + i / POR_PALABRA] >>> (i % POR_PALABRA * BITS)) & 63;
+    }
+
+    private void set(int base, int i, int card) {
+        int shift = i % POR_PALABRA * BITS;
+        int w = base + i / POR_PALABRA;
+        cards[w] = cards[w] & ~(63L << shift) | (long) card << shift;
+    }
+
+    private void addToTable(int card) {
+        set(MESA, tableSize++, card);
+        tableMask |= 1L << card;
+    }
+
+    // Quita de la mesa las posiciones marcadas, manteniendo el orden de las demás
+    private void removeFromTable(long tableSlots, int capturer) {
+        int kept = 0;
+        for (int i = 0; i < tableSize; i++) {
+            int card = get(MESA, i);
+            if ((tableSlots & (1L << i)) != 0) {
+                captured[capturer] |= 1L << card;
+                tableMask &= ~(1L << card);
+            } else {
+                set(MESA, kept++, card);
+            }
+        }
+        tableSize = kept;
+    }
+
+    private static int handSize(int seat) {
+        return seat >>> MANO_CANTIDAD & 3;
+    }
+
+    private static int handCard(int seat, int i) {
+        return seat >>> (i * BITS) & 63;
+    }
+
+    // Quita la carta i de la mano y corre las siguientes, como List.remove
+    private int removeFromHand(int player, int i) {
+        int seat = seats[player];
+        int n = handSize(seat);
+        int card = handCard(seat, i);
+        int low = seat & ((1 << (i * BITS)) - 1);
+        int high = (seat & ((1 << (n * BITS)) - 1)) >>> ((i + 1) * BITS) << (i * BITS);
+        seats[player] = seat & (-1 << MANO_ESCOBAS) | (n - 1) << MANO_CANTIDAD | high | low;
+        return card;
+    }
+
+    // --- Accesores (mismos nombres que en GameState) ---
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public boolean isTeamPlay() {
+        return teamPlay;
+    }
+
+    public int getCurrentPlayerNumber() {
+        return currentIndex + 1;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getDeckSize() {
+        return deckEnd - deckPos;
+    }
+
+    public boolean isDeckEmpty() {
+        return deckPos == deckEnd;
+    }
+
+    public boolean isTableEmpty() {
+        return tableSize == 0;
+    }
+
+    /**
+     * Cartas de la mesa en orden de llegada. Crea la lista en cada llamada.
+     */
+    public List<Card> getTable() {
+        List<Card> table = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            table.add(Card.fromIndex(get(MESA, i)));
+        }
+        return table;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public long getTableMask() {
+        return tableMask;
+    }
+
+    /**
+     * Mano del jugador en orden. Crea la lista en cada llamada.
+     */
+    public List<Card> getHand(int playerNumber) {
+        int seat = seats[playerNumber - 1];
+        List<Card> hand = new ArrayList<>(3);
+        for (int i = 0; i < handSize(seat); i++) {
+            hand.add(Card.fromIndex(handCard(seat, i)));
+        }
+        return hand;
+    }
+
+    public int getHandSize(int playerNumber) {
+        return handSize(seats[playerNumber - 1]);
+    }
+
+    public long getHandMask(int playerNumber) {
+        int seat = seats[playerNumber - 1];
+        long mask = 0L;
+        for (int i = 0; i < handSize(seat); i++) {
+            mask |= 1L << handCard(seat, i);
+        }
+        return mask;
+    }
+
+    public long getCapturedMask(int playerNumber) {
+        return captured[playerNumber - 1];
+    }
+
+    public int getCapturedCount(int playerNumber) {
+        return Long.bitCount(captured[playerNumber - 1]);
+    }
+
+    public int getEscobasCount(int playerNumber) {
+        return seats[playerNumber - 1] >>> MANO_ESCOBAS;
+    }
+
+    /**
+     * Puntaje de la mano de cada jugador, como ScoreCalculator.calculateScores.
+     *
+     * @param out Puntaje de cada jugador en orden de asiento
+     * @param escobas Arreglo auxiliar de numPlayers posiciones
+     */
+    public void calculateScores(int[] out, int[] escobas) {
+        for (int i = 0; i < numPlayers; i++) {
+            escobas[i] = seats[i] >>> MANO_ESCOBAS;
+        }
+        ScoreCalculator.calculateScores(captured, escobas, numPlayers, teamPlay, out);
+    }
+
+    // --- Conversión ---
+
+    /**
+     * Copia la mesa completa de un GameState con la misma cantidad de jugadores.
+     */
+    public void copyFrom(GameState state) {
+        if (state.getNumPlayers() != numPlayers) {
+            throw new IllegalArgumentException("La mesa es de " + state.getNumPlayers() + " jugadores");
+        }
+        byte[] order = new byte[Card.TOTAL_CARTAS];
+        deckPos = 0;
+        deckEnd = state.getDeck().copyIndices(order);
+        for (int i = 0; i < deckEnd; i++) {
+            set(MAZO, i, order[i]);
+        }
+        tableSize = 0;
+        tableMask = 0L;
+        List<Card> table = state.getTable();
+        for (int i = 0; i < table.size(); i++) {
+            addToTable(table.get(i).getIndex());
+        }
+        for (int p = 0; p < numPlayers; p++) {
+            Player player = state.getPlayers()[p];
+            List<Card> hand = player.getHand();
+            int seat = hand.size() << MANO_CANTIDAD | player.getEscobasCount() << MANO_ESCOBAS;
+            for (int i = 0; i < hand.size(); i++) {
+                seat |= hand.get(i).getIndex() << (i * BITS);
+            }
+            seats[p] = seat;
+            captured[p] = player.getCapturedMask();
+        }
+        currentIndex = state.getCurrentPlayerNumber() - 1;
+        gameOver = state.isGameOver();
+        version = state.getVersion();
+    }
+
+    /**
+     * Vuelca la mesa en un GameState con la misma cantidad de jugadores, sin
+     * notificar a sus observadores. Las capturas quedan en orden de índice.
+     */
+    public void copyTo(GameState state) {
+        if (state.getNumPlayers() != numPlayers) {
+            throw new IllegalArgumentException("La mesa es de " + state.getNumPlayers() + " jugadores");
+        }
+        byte[] order = new byte[Card.TOTAL_CARTAS];
+        for (int i = deckPos; i < deckEnd; i++) {
+            order[i - deckPos] = (byte) get(MAZO, i);
+        }
+        state.getDeck().load(order, deckEnd - deckPos);
+        List<Card> table = state.getTable();
+        table.clear();
+        for (int i = 0; i < tableSize; i++) {
+            table.add(Card.fromIndex(get(MESA, i)));
+        }
+        for (int p = 0; p < numPlayers; p++) {
+            Player player = state.getPlayers()[p];
+            player.clear();
+            int seat = seats[p];
+            for (int i = 0; i < handSize(seat); i++) {
+                player.addCardToHand(Card.fromIndex(handCard(seat, i)));
+            }
+            for (long m = captured[p]; m != 0; m &= m - 1) {
+                player.addCapturedCard(Card.fromIndex(Long.numberOfTrailingZeros(m)));
+            }
+            for (int e = 0; e < seat >>> MANO_ESCOBAS; e++) {
+                player.incrementEscobas();
+            }
+        }
+        state.restore(currentIndex + 1, gameOver, version);
+    }
+}
@@ -0,0 +1,136 @@
+package escoba.game;
+
+import escoba.model.Card;
+import escoba.model.Player;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Snapshot binario completo de una partida: mazo, mesa, manos, capturas y turno.
+ *
+ * A diferencia de la imagen que se envía a los clientes, incluye la información
+ * oculta (orden del mazo y ambas manos) para poder reconstruir el GameState.
+ * Ocupa menos de 100 bytes. El orden de las cartas capturadas no se guarda,
+ * ya que no afecta al juego ni al puntaje.
+ */
+public final class GameSnapshot {
+
+    private static final int FORMAT = 1;
+
+    /** Tamaño máximo de un snapshot. */
+    public static final int MAX_SIZE = 160;
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * Escribe el estado completo de la partida.
+     */
+    public static void write(GameState state, ByteBuffer buf) {
+        buf.put((byte) FORMAT);
+        buf.putLong(state.getVersion());
+        buf.put((byte) state.getCurrentPlayerNumber());
+        buf.put((byte) ((state.isGameOver() ? 1 : 0) | (state.isTeamPlay() ? 2 : 0)));
+
+        byte[] deck = new byte[Card.TOTAL_CARTAS];
+        int deckSize = state.getDeck().copyIndices(deck);
+        buf.put((byte) deckSize);
+        buf.put(deck, 0, deckSize);
+
+        putCards(buf, state.getTable());
+
+        buf.put((byte) state.getNumPlayers());
+        for (int p = 1; p <= state.getNumPlayers(); p++) {
+            Player player = state.getPlayer(p);
+            putCards(buf, player.getHand());
+            buf.putLong(player.getCapturedMask());
+            buf.put((byte) player.getEscobasCount());
+        }
+    }
+
+    /**
+     * Escribe el estado completo en un arreglo de bytes del tamaño justo.
+     */
+    public static byte[] toBytes(GameState state) {
+        ByteBuffer buf = ByteBuffer.allocate(MAX_SIZE);
+        write(state, buf);
+        byte[] bytes = new byte[buf.position()];
+        buf.flip();
+        buf.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Carga un snapshot sobre un GameState existente, sin notificar observadores.
+     *
+     * @throws IllegalArgumentException si el formato no es reconocido o la mesa
+     *         no tiene la misma cantidad de jugadores
+     */
+    public static void read(ByteBuffer buf, GameState state) {
+        int format = buf.get();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Formato de snapshot desconocido: " + format);
+        }
+        long version = buf.getLong();
+        int current = buf.get();
+        boolean gameOver = (buf.get() & 1) != 0;
+
+        byte[] deck = new byte[Card.TOTAL_CARTAS];
+        int deckSize = buf.get();
+        buf.get(deck, 0, deckSize);
+        state.getDeck().load(deck, deckSize);
+
+        readCards(buf, state.getTable());
+
+        int players = buf.get();
+        if (players != state.getNumPlayers()) {
+            throw new IllegalArgumentException("El snapshot es de " + players + " jugadores");
+        }
+        for (int p = 1; p <= players; p++) {
+            Player player = state.getPlayer(p);
+            player.clear();
+            readCards(buf, player.getHand());
+            long captured = buf.getLong();
+            while (captured != 0) {
+                player.addCapturedCard(Card.fromIndex(Long.numberOfTrailingZeros(captured)));
+                captured &= captured - 1;
+            }
+            int escobas = buf.get();
+            for (int i = 0; i < escobas; i++) {
+                player.incrementEscobas();
+            }
+        }
+        state.restore(current, gameOver, version);
+    }
+
+    /**
+     * Crea un GameState nuevo a partir de un snapshot.
+     */
+    public static GameState fromBytes(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        // Encabezado: formato, versión (8 bytes), turno, flags, mazo, mesa, jugadores
+        int flags = bytes[1 + 8 + 1];
+        int deckSize = bytes[1 + 8 + 2];
+        int tableSize = bytes[1 + 8 + 3 + deckSize];
+        int players = bytes[1 + 8 + 4 + deckSize + tableSize];
+        GameState state = new GameState(players, (flags & 2) != 0);
+        read(buf, state);
+        return state;
+    }
+
+    private static void putCards(ByteBuffer buf, List<Card> cards) {
+        buf.put((byte) cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            buf.put((byte) cards.get(i).getIndex());
+        }
+    }
+
+    private static void readCards(ByteBuffer buf, List<Card> cards) {
+        cards.clear();
+        int count = buf.get();
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.fromIndex(buf.get()));
+        }
+    }
+}
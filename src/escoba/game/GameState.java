@@ -1,6 +1,8 @@
 package escoba.game;
 
+import escoba.events.FlightEvents;
 import escoba.events.GameEvent;
+import escoba.metrics.GameMetrics;
 import escoba.model.Card;
 import escoba.model.Deck;
 import escoba.model.Player;
@@ -8,37 +10,123 @@ import framework.observer.Observable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Manages the game state for Escoba de 15.
  * Handles deck, table, players, and game flow.
  */
 public class GameState extends Observable {
+    /** Mínimo y máximo de jugadores por mesa. */
+    public static final int MIN_JUGADORES = 2;
+    public static final int MAX_JUGADORES = 4;
+
     private Deck deck;
     private List<Card> table;
-    private Player player1;
-    private Player player2;
-    private int currentPlayerNumber; // 1 or 2
+    private final Player[] players;
+    private final int numPlayers;
+    private final boolean teamPlay; // Con 4 jugadores: 1 y 3 contra 2 y 4
+    private int currentIndex; // Índice en players del jugador actual (0 .. numPlayers-1)
     private boolean gameOver;
+    private long version; // Aumenta con cada cambio notificado
+    private final CardTracker[] trackers; // Cartas no vistas por cada jugador
+    private final Random resetRandom = new Random(); // Para reset(seed)
 
     public GameState() {
+        this(2, false);
+    }
+
+    /**
+     * Crea una mesa para 2 a 4 jugadores.
+     *
+     * @param numPlayers Cantidad de jugadores
+     * @param teamPlay Si se juega por parejas (solo con 4 jugadores)
+     * @throws IllegalArgumentException si la combinación no es válida
+     */
+    public GameState(int numPlayers, boolean teamPlay) {
+        if (numPlayers < MIN_JUGADORES || numPlayers > MAX_JUGADORES) {
+            throw new IllegalArgumentException("Cantidad de jugadores inválida: " + numPlayers);
+        }
+        if (teamPlay && numPlayers != 4) {
+            throw new IllegalArgumentException("El juego por parejas requiere 4 jugadores");
+        }
         this.deck = new Deck();
         this.table = new ArrayList<>();
-        this.player1 = new Player("Player 1");
-        this.player2 = new Player("Player 2");
-        this.currentPlayerNumber = 1;
+        this.numPlayers = numPlayers;
+        this.teamPlay = teamPlay;
+        this.players = new Player[numPlayers];
+        this.trackers = new CardTracker[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            players[i] = new Player("Player " + (i + 1));
+            trackers[i] = new CardTracker();
+        }
+        this.currentIndex = 0;
         this.gameOver = false;
     }
 
     public void startNewGame() {
-        deck = new Deck();
-        deck.shuffle();
+        startNewGame(1);
+    }
+
+    /**
+     * Inicia una mano nueva reutilizando el mazo, la mesa y los jugadores existentes.
+     *
+     * @param firstPlayerNumber Jugador que juega primero (el que sigue al que reparte)
+     */
+    public void startNewGame(int firstPlayerNumber) {
+        startNewGame(firstPlayerNumber, null);
+    }
+
+    /**
+     * Inicia una mano nueva con un reparto reproducible.
+     *
+     * @param firstPlayerNumber Jugador que juega primero
+     * @param random Generador para mezclar el mazo (null = mezcla normal)
+     */
+    public void startNewGame(int firstPlayerNumber, Random random) {
+        deck.reset();
+        if (random != null) {
+            deck.shuffle(random);
+        } else {
+            deck.shuffle();
+        }
+        deal(firstPlayerNumber);
+    }
+
+    /**
+     * Reinicia la mesa en el lugar con un reparto determinado por la semilla,
+     * empezando el jugador 1. Reutiliza el mazo, los jugadores, sus listas y el
+     * generador: no crea objetos.
+     *
+     * @param seed Semilla de la mezcla; la misma semilla da el mismo reparto
+     */
+    public void reset(long seed) {
+        resetRandom.setSeed(seed);
+        startNewGame(1, resetRandom);
+    }
+
+    /**
+     * Inicia una mano nueva con el mazo en un orden dado.
+     * Se reparten 4 cartas a la mesa y después una carta por vuelta a cada
+     * jugador, en ese orden.
+     *
+     * @param firstPlayerNumber Jugador que juega primero
+     * @param cardOrder Índices de las 40 cartas, la primera es la primera en salir
+     */
+    public void startNewGameFromOrder(int firstPlayerNumber, byte[] cardOrder) {
+        deck.load(cardOrder, Card.TOTAL_CARTAS);
+        deal(firstPlayerNumber);
+    }
+
+    private void deal(int firstPlayerNumber) {
         table.clear();
 
-        player1 = new Player("Player 1");
-        player2 = new Player("Player 2");
+        for (int i = 0; i < numPlayers; i++) {
+            players[i].clear();
+            trackers[i].reset();
+        }
 
-        currentPlayerNumber = 1;
+        currentIndex = firstPlayerNumber - 1;
         gameOver = false;
 
         // Deal 4 cards to table
@@ -46,6 +134,7 @@ public class GameState extends Observable {
             Card card = deck.draw();
             if (card != null) {
                 table.add(card);
+                seeAll(card);
             }
         }
 
@@ -53,51 +142,135 @@ public class GameState extends Observable {
         dealCardsToPlayers();
 
         // Notify observers that game has started
+        GameMetrics.count(GameMetrics.PARTIDAS_INICIADAS);
+        FlightEvents.GameStarted started = new FlightEvents.GameStarted();
+        if (started.shouldCommit()) {
+            started.players = numPlayers;
+            started.firstPlayer = firstPlayerNumber;
+            started.teamPlay = teamPlay;
+            started.commit();
+        }
         notifyObservers(GameEvent.GAME_STARTED);
     }
 
     public void dealCardsToPlayers() {
+        FlightEvents.Deal dealt = new FlightEvents.Deal();
+        dealt.begin();
+        int repartidas = 0;
+
+        // Una carta por vuelta a cada jugador, como en la mesa real
         for (int i = 0; i < 3; i++) {
-            Card card1 = deck.draw();
-            if (card1 != null) player1.addCardToHand(card1);
+            for (int p = 0; p < numPlayers; p++) {
+                Card card = deck.draw();
+                if (card != null) {
+                    players[p].addCardToHand(card);
+                    trackers[p].see(card.getIndex());
+                    repartidas++;
+                }
+            }
+        }
 
-            Card card2 = deck.draw();
-            if (card2 != null) player2.addCardToHand(card2);
+        dealt.end();
+        if (dealt.shouldCommit()) {
+            dealt.cardsDealt = repartidas;
+            dealt.deckSize = deck.remainingCards();
+            dealt.commit();
         }
 
         // Notify observers that cards were dealt
         notifyObservers(GameEvent.CARDS_DEALT);
     }
 
+    /**
+     * Registra el cambio en la versión del estado antes de avisar a los observadores.
+     * Los clientes remotos comparan versiones para aplicar deltas o pedir un snapshot.
+     */
+    @Override
+    public void notifyObservers(Object event) {
+        version++;
+        long inicio = GameMetrics.start();
+        super.notifyObservers(event);
+        GameMetrics.stop(GameMetrics.NOTIFICACION, inicio);
+    }
+
+    /**
+     * Obtiene la versión actual del estado.
+     *
+     * @return Número de cambios notificados desde la creación
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public Player getCurrentPlayer() {
-        return currentPlayerNumber == 1 ? player1 : player2;
+        return players[currentIndex];
     }
 
+    /**
+     * Obtiene el jugador que juega después del actual.
+     */
     public Player getOtherPlayer() {
-        return currentPlayerNumber == 1 ? player2 : player1;
+        return players[nextIndex(currentIndex)];
     }
 
     public void switchTurn() {
-        currentPlayerNumber = currentPlayerNumber == 1 ? 2 : 1;
+        currentIndex = nextIndex(currentIndex);
 
         // Notify observers that turn has switched
         notifyObservers(GameEvent.TURN_SWITCHED);
     }
 
+    private int nextIndex(int index) {
+        return index + 1 == numPlayers ? 0 : index + 1;
+    }
+
     public List<Card> getTable() {
         return table;
     }
 
     public Player getPlayer1() {
-        return player1;
+        return players[0];
     }
 
     public Player getPlayer2() {
-        return player2;
+        return players[1];
+    }
+
+    /**
+     * Obtiene un jugador por su número.
+     *
+     * @param playerNumber Número de jugador (1 .. getNumPlayers())
+     */
+    public Player getPlayer(int playerNumber) {
+        return players[playerNumber - 1];
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public boolean isTeamPlay() {
+        return teamPlay;
+    }
+
+    /**
+     * Obtiene el equipo de un jugador en el juego por parejas (0 o 1).
+     * Sin parejas, cada jugador es su propio equipo.
+     */
+    public int getTeam(int playerNumber) {
+        return teamPlay ? (playerNumber - 1) & 1 : playerNumber - 1;
+    }
+
+    /**
+     * Jugadores en orden de asiento, para cálculos de puntaje sobre toda la mesa.
+     * El arreglo es interno: no modificarlo.
+     */
+    public Player[] getPlayers() {
+        return players;
     }
 
     public int getCurrentPlayerNumber() {
-        return currentPlayerNumber;
+        return currentIndex + 1;
     }
 
     public boolean isGameOver() {
@@ -113,6 +286,92 @@ public class GameState extends Observable {
         }
     }
 
+    Deck getDeck() {
+        return deck;
+    }
+
+    /**
+     * Restaura los datos de turno desde un snapshot, sin notificar.
+     */
+    void restore(int currentPlayerNumber, boolean gameOver, long version) {
+        this.currentIndex = currentPlayerNumber - 1;
+        this.gameOver = gameOver;
+        this.version = version;
+        rebuildTrackers();
+    }
+
+    /**
+     * Carga una posición arbitraria, sin notificar. Las cartas de la mesa y de
+     * las manos quedan en orden de índice (ver Card.getIndex()).
+     *
+     * @param currentPlayerNumber Jugador al que le toca
+     * @param deckOrder Cartas del mazo, la primera es la próxima en salir
+     * @param deckSize Cantidad de cartas del mazo
+     * @param tableMask Cartas de la mesa
+     * @param handMasks Mano de cada jugador, en orden de asiento
+     * @param capturedMasks Capturas de cada jugador
+     * @param escobas Escobas de cada jugador
+     */
+    public void loadPosition(int currentPlayerNumber, byte[] deckOrder, int deckSize, long tableMask,
+                             long[] handMasks, long[] capturedMasks, int[] escobas) {
+        deck.load(deckOrder, deckSize);
+        table.clear();
+        addCards(table, tableMask);
+        for (int i = 0; i < numPlayers; i++) {
+            Player player = players[i];
+            player.clear();
+            addCards(player.getHand(), handMasks[i]);
+            addCards(player.getCapturedCards(), capturedMasks[i]);
+            for (int e = 0; e < escobas[i]; e++) {
+                player.incrementEscobas();
+            }
+        }
+        restore(currentPlayerNumber, false, version);
+    }
+
+    private static void addCards(List<Card> cards, long mask) {
+        while (mask != 0) {
+            cards.add(Card.fromIndex(Long.numberOfTrailingZeros(mask)));
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * Lo que sabe de las cartas no vistas el jugador dado.
+     * Se actualiza con cada jugada; no modificarlo.
+     */
+    public CardTracker getTracker(int playerNumber) {
+        return trackers[playerNumber - 1];
+    }
+
+    private void seeAll(Card card) {
+        for (int i = 0; i < numPlayers; i++) {
+            trackers[i].see(card.getIndex());
+        }
+    }
+
+    /**
+     * Recalcula los trackers desde cero: mesa y capturas son públicas, cada mano
+     * solo la ve su dueño. Lo usa restore(), que carga el estado sin jugadas.
+     */
+    private void rebuildTrackers() {
+        long known = 0L;
+        for (int i = 0; i < table.size(); i++) {
+            known |= 1L << table.get(i).getIndex();
+        }
+        for (int i = 0; i < numPlayers; i++) {
+            known |= players[i].getCapturedMask();
+        }
+        for (int i = 0; i < numPlayers; i++) {
+            trackers[i].reset();
+            long seen = known | players[i].getHandMask();
+            while (seen != 0) {
+                trackers[i].see(Long.numberOfTrailingZeros(seen));
+                seen &= seen - 1;
+            }
+        }
+    }
+
     public int getDeckSize() {
         return deck.remainingCards();
     }
@@ -123,6 +382,7 @@ public class GameState extends Observable {
 
     public void addCardToTable(Card card) {
         table.add(card);
+        seeAll(card);
 
         // Notify observers that table was updated
         notifyObservers(GameEvent.TABLE_UPDATED);
@@ -146,6 +406,13 @@ public class GameState extends Observable {
      * @return Resultado de la jugada con mensaje apropiado
      */
     public ResultadoJugada jugarCarta(int cardIndex) {
+        long inicio = GameMetrics.start();
+        ResultadoJugada resultado = colocarCarta(cardIndex);
+        GameMetrics.stop(GameMetrics.JUGAR_CARTA, inicio);
+        return resultado;
+    }
+
+    private ResultadoJugada colocarCarta(int cardIndex) {
         Player currentPlayer = getCurrentPlayer();
 
         if (cardIndex < 0 || cardIndex >= currentPlayer.getHandSize()) {
@@ -153,11 +420,20 @@ public class GameState extends Observable {
         }
 
         Card card = currentPlayer.removeCardFromHand(cardIndex);
+        GameMetrics.count(GameMetrics.JUGADAS);
         String mensaje = "Pusiste " + card + " en la mesa";
 
         addCardToTable(card);
         notifyObservers(GameEvent.CARD_PLACED_ON_TABLE);
 
+        FlightEvents.CardPlaced placed = new FlightEvents.CardPlaced();
+        if (placed.shouldCommit()) {
+            placed.player = currentIndex + 1;
+            placed.card = card.toString();
+            placed.tableSize = table.size();
+            placed.commit();
+        }
+
         // Avanzar turno
         boolean continua = nextTurn();
 
@@ -176,6 +452,35 @@ public class GameState extends Observable {
      * @return Resultado de la jugada con mensaje apropiado
      */
     public ResultadoJugada intentarCaptura(int cardIndex, List<Integer> tableIndices) {
+        long tableSlots = 0L;
+        for (int idx : tableIndices) {
+            if (idx < 0 || idx >= table.size()) {
+                return ResultadoJugada.error("¡Número de carta de mesa inválido! La mesa tiene " + table.size() + " cartas.");
+            }
+            if ((tableSlots & (1L << idx)) != 0) {
+                return ResultadoJugada.error("¡Cada carta de la mesa se puede llevar una sola vez!");
+            }
+            tableSlots |= 1L << idx;
+        }
+        return intentarCaptura(cardIndex, tableSlots);
+    }
+
+    /**
+     * Intenta capturar las cartas de la mesa indicadas por una máscara de posiciones.
+     * Al ser una máscara, cada carta de la mesa se cuenta una sola vez.
+     *
+     * @param cardIndex Índice de la carta en la mano del jugador actual
+     * @param tableSlots Máscara de posiciones de la mesa (bit i = carta i de la mesa)
+     * @return Resultado de la jugada con mensaje apropiado
+     */
+    public ResultadoJugada intentarCaptura(int cardIndex, long tableSlots) {
+        long inicio = GameMetrics.start();
+        ResultadoJugada resultado = capturar(cardIndex, tableSlots);
+        GameMetrics.stop(GameMetrics.CAPTURA, inicio);
+        return resultado;
+    }
+
+    private ResultadoJugada capturar(int cardIndex, long tableSlots) {
         Player currentPlayer = getCurrentPlayer();
 
         // Validar índice de carta de mano
@@ -183,22 +488,17 @@ public class GameState extends Observable {
             return ResultadoJugada.error("Índice de carta inválido");
         }
 
-        // Validar índices de mesa
-        for (int idx : tableIndices) {
-            if (idx < 0 || idx >= table.size()) {
-                return ResultadoJugada.error("¡Número de carta de mesa inválido! La mesa tiene " + table.size() + " cartas.");
-            }
+        // Validar posiciones de mesa
+        if (64 - Long.numberOfLeadingZeros(tableSlots) > table.size()) {
+            return ResultadoJugada.error("¡Número de carta de mesa inválido! La mesa tiene " + table.size() + " cartas.");
         }
 
         Card playedCard = currentPlayer.getHand().get(cardIndex);
         int sum = playedCard.getGameValue();
-        List<Card> toCapture = new ArrayList<>();
 
         // Calcular suma
-        for (int idx : tableIndices) {
-            Card tableCard = table.get(idx);
-            sum += tableCard.getGameValue();
-            toCapture.add(tableCard);
+        for (long slots = tableSlots; slots != 0; slots &= slots - 1) {
+            sum += table.get(Long.numberOfTrailingZeros(slots)).getGameValue();
         }
 
         // Validar que sume 15
@@ -206,9 +506,17 @@ public class GameState extends Observable {
             return ResultadoJugada.error("¡Las cartas no suman 15! Tu suma = " + sum);
         }
 
+        List<Card> toCapture = new ArrayList<>(Long.bitCount(tableSlots));
+        for (long slots = tableSlots; slots != 0; slots &= slots - 1) {
+            toCapture.add(table.get(Long.numberOfTrailingZeros(slots)));
+        }
+
         // Captura válida - ejecutar
+        GameMetrics.count(GameMetrics.JUGADAS);
+        GameMetrics.count(GameMetrics.CAPTURAS);
         currentPlayer.removeCardFromHand(cardIndex);
         currentPlayer.addCapturedCard(playedCard);
+        seeAll(playedCard);
         currentPlayer.addCapturedCards(toCapture);
         removeCardsFromTable(toCapture);
 
@@ -220,10 +528,20 @@ public class GameState extends Observable {
         boolean esEscoba = false;
         if (isTableEmpty()) {
             currentPlayer.incrementEscobas();
+            GameMetrics.count(GameMetrics.ESCOBAS);
             notifyObservers(GameEvent.ESCOBA_SCORED);
             esEscoba = true;
         }
 
+        FlightEvents.Capture capture = new FlightEvents.Capture();
+        if (capture.shouldCommit()) {
+            capture.player = currentIndex + 1;
+            capture.card = playedCard.toString();
+            capture.subsetSize = toCapture.size();
+            capture.escoba = esEscoba;
+            capture.commit();
+        }
+
         // Avanzar turno
         boolean continua = nextTurn();
 
@@ -238,14 +556,41 @@ public class GameState extends Observable {
         return ResultadoJugada.exitoSimple(mensaje);
     }
 
+    /**
+     * Aplica una jugada codificada con Move.
+     *
+     * @param move Jugada compacta (ver Move)
+     * @return Resultado de la jugada con mensaje apropiado
+     */
+    public ResultadoJugada jugar(long move) {
+        if (move == Move.NINGUNA) {
+            return ResultadoJugada.error("Jugada inválida");
+        }
+        if (Move.esCaptura(move)) {
+            return intentarCaptura(Move.handSlot(move), Move.tableSlots(move));
+        }
+        return jugarCarta(Move.handSlot(move));
+    }
+
     /**
      * Avanza al siguiente turno, repartiendo cartas si es necesario o terminando el juego.
      *
      * @return true si el juego continúa, false si terminó
      */
     private boolean nextTurn() {
-        // Verificar si ambos jugadores necesitan cartas nuevas
-        if (!player1.hasCardsInHand() && !player2.hasCardsInHand()) {
+        long inicio = GameMetrics.start();
+        boolean continua = avanzarTurno();
+        GameMetrics.stop(GameMetrics.TURNO, inicio);
+        return continua;
+    }
+
+    private boolean avanzarTurno() {
+        // Verificar si todos los jugadores necesitan cartas nuevas
+        boolean anyCards = false;
+        for (int i = 0; i < numPlayers; i++) {
+            anyCards |= players[i].hasCardsInHand();
+        }
+        if (!anyCards) {
             if (isDeckEmpty()) {
                 finishGame();
                 return false;
@@ -262,14 +607,41 @@ public class GameState extends Observable {
      * Termina el juego, dando las cartas restantes de la mesa al último jugador.
      */
     private void finishGame() {
-        setGameOver(true);
-
         // El último jugador se lleva las cartas restantes de la mesa
         if (!isTableEmpty()) {
             Player currentPlayer = getCurrentPlayer();
             currentPlayer.addCapturedCards(table);
             table.clear();
         }
+
+        // Se notifica al final para que los observadores vean la mesa ya levantada
+        GameMetrics.count(GameMetrics.PARTIDAS_TERMINADAS);
+        setGameOver(true);
+
+        FlightEvents.GameOver over = new FlightEvents.GameOver();
+        if (over.shouldCommit()) {
+            int[] scores = new int[numPlayers];
+            ScoreCalculator.calculateScores(players, numPlayers, teamPlay, scores);
+            StringBuilder sb = new StringBuilder();
+            int winner = 0;
+            int best = -1;
+            for (int i = 0; i < numPlayers; i++) {
+                sb.append(i == 0 ? "" : " ").append(scores[i]);
+            }
+            // Con parejas los asientos 1 y 2 representan a cada pareja
+            for (int i = 0; i < (teamPlay ? 2 : numPlayers); i++) {
+                if (scores[i] > best) {
+                    best = scores[i];
+                    winner = i + 1;
+                } else if (scores[i] == best) {
+                    winner = 0;
+                }
+            }
+            over.scores = sb.toString();
+            over.winner = winner;
+            over.version = version;
+            over.commit();
+        }
     }
 
     /**
@@ -279,7 +651,7 @@ public class GameState extends Observable {
      * @return true si es el turno del jugador y el juego no ha terminado
      */
     public boolean puedeJugadorActuar(int numeroJugador) {
-        return !gameOver && numeroJugador == currentPlayerNumber;
+        return !gameOver && numeroJugador == currentIndex + 1;
     }
 
     /**
@@ -289,14 +661,12 @@ public class GameState extends Observable {
      * @return true si el comando es válido para el estado actual
      */
     public boolean esComandoValido(String comando) {
+        int tipo = CommandParser.keyword(comando);
         if (gameOver) {
-            return comando.equals("nueva") || comando.equals("new") ||
-                   comando.equals("salir") || comando.equals("quit") ||
-                   comando.equals("ayuda") || comando.equals("help");
+            return tipo == CommandParser.NUEVA || tipo == CommandParser.SALIR || tipo == CommandParser.AYUDA;
         } else {
-            return comando.equals("salir") || comando.equals("quit") ||
-                   comando.equals("ayuda") || comando.equals("help") ||
-                   comando.startsWith("jugar ") || comando.startsWith("play ");
+            return tipo == CommandParser.SALIR || tipo == CommandParser.AYUDA ||
+                   tipo == CommandParser.PISTA || tipo == CommandParser.JUGAR;
         }
     }
 
@@ -315,6 +685,7 @@ public class GameState extends Observable {
         } else {
             return new String[]{
                 "jugar <carta#> [llevar <mesa#> ...] - Jugar una carta",
+                "pista / hint                        - Sugerir capturas posibles",
                 "salir / quit                        - Salir del juego",
                 "ayuda / help                        - Mostrar esta ayuda"
             };
@@ -327,8 +698,8 @@ public class GameState extends Observable {
      * @return Array de Strings con las líneas del resumen
      */
     public String[] obtenerResumenFinJuego() {
-        int score1 = ScoreCalculator.calculateScore(player1, player2);
-        int score2 = ScoreCalculator.calculateScore(player2, player1);
+        int[] scores = new int[numPlayers];
+        ScoreCalculator.calculateScores(players, numPlayers, teamPlay, scores);
 
         List<String> lineas = new ArrayList<>();
 
@@ -337,21 +708,42 @@ public class GameState extends Observable {
         lineas.add("        ¡FIN DEL JUEGO!");
         lineas.add("=================================");
         lineas.add("");
-        lineas.add(ScoreCalculator.getScoreBreakdown(player1, player2));
-        lineas.add("");
-        lineas.add(ScoreCalculator.getScoreBreakdown(player2, player1));
-        lineas.add("");
+        if (teamPlay) {
+            for (int team = 0; team < 2; team++) {
+                lineas.add(ScoreCalculator.getTeamScoreBreakdown(players, numPlayers, team));
+                lineas.add("");
+            }
+        } else {
+            for (int i = 0; i < numPlayers; i++) {
+                lineas.add(ScoreCalculator.getScoreBreakdown(players, numPlayers, i));
+                lineas.add("");
+            }
+        }
         lineas.add("PUNTAJE FINAL:");
-        lineas.add("  " + player1.getName() + ": " + score1 + " puntos");
-        lineas.add("  " + player2.getName() + ": " + score2 + " puntos");
+        for (int i = 0; i < numPlayers; i++) {
+            lineas.add("  " + players[i].getName() + ": " + scores[i] + " puntos");
+        }
         lineas.add("");
 
-        if (score1 > score2) {
-            lineas.add("*** ¡" + player1.getName().toUpperCase() + " GANA! ***");
-        } else if (score2 > score1) {
-            lineas.add("*** ¡" + player2.getName().toUpperCase() + " GANA! ***");
-        } else {
+        // Con parejas, los jugadores 1 y 2 representan a cada equipo
+        int sides = teamPlay ? 2 : numPlayers;
+        int best = 0;
+        boolean tie = false;
+        for (int i = 1; i < sides; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+                tie = false;
+            } else if (scores[i] == scores[best]) {
+                tie = true;
+            }
+        }
+        if (tie) {
             lineas.add("*** ¡EMPATE! ***");
+        } else if (teamPlay) {
+            lineas.add("*** ¡" + players[best].getName().toUpperCase() + " Y "
+                    + players[best + 2].getName().toUpperCase() + " GANAN! ***");
+        } else {
+            lineas.add("*** ¡" + players[best].getName().toUpperCase() + " GANA! ***");
         }
 
         lineas.add("=================================");
@@ -0,0 +1,211 @@
+package escoba.game;
+
+import escoba.model.Card;
+import escoba.model.CardMask;
+import escoba.model.SuitCanonicalizer;
+
+import java.util.Arrays;
+
+/**
+ * Sugiere capturas para un jugador, ordenadas por el valor que aportan al puntaje.
+ *
+ * Trabaja solo con máscaras de cartas: por cada carta de la mano recorre los
+ * subconjuntos de la mesa que suman 15 con ella (en profundidad, podando por
+ * suma). Cada captura se valora en centésimos de punto según las categorías de
+ * ScoreCalculator: cartas, Oros, 7, el 7 de Oro y la escoba, restando el riesgo
+ * de dejar la mesa lista para que el rival haga escoba.
+ *
+ * Los resultados se guardan en un caché de acceso directo indexado por las
+ * máscaras (mano, mesa) en forma canónica de palos (ver SuitCanonicalizer):
+ * posiciones que solo difieren en Copa, Espada y Basto comparten entrada.
+ * No crea objetos y no es seguro entre hilos.
+ *
+ * Cada pista se codifica en un long: los 6 bits bajos son el índice de la carta
+ * de la mano y el resto la máscara de cartas de la mesa a llevar.
+ */
+public final class HintEngine {
+
+    /** Máximo de pistas por posición; se guardan las mejores (ver getLastTotal). */
+    public static final int MAX_HINTS = 32;
+
+    // Valores en centésimos de punto
+    private static final int POR_CARTA = 5;
+    private static final int POR_ORO = 16;
+    private static final int POR_SIETE = 30;
+    private static final int SIETE_DE_ORO = 100;
+    private static final int ESCOBA = 100;
+    private static final int RIESGO_ESCOBA = 40;
+
+    private static final int ENTRIES = 1024;
+
+    private final long[] keyHand = new long[ENTRIES];
+    private final long[] keyTable = new long[ENTRIES];
+    private final int[] counts = new int[ENTRIES];
+    private final int[] totals = new int[ENTRIES];
+    private final long[] hints = new long[ENTRIES * MAX_HINTS];
+    private final int[] scores = new int[ENTRIES * MAX_HINTS];
+    private long hits;
+    private long misses;
+    private int lastTotal;
+
+    private final long[] key = new long[2];
+
+    // Estado de la búsqueda en curso
+    private final int[] tableIndices = new int[Card.TOTAL_CARTAS];
+    private int tableSize;
+    private long table;
+    private int handIndex;
+    private int base;
+    private int count;
+    private int found;
+
+    public HintEngine() {
+        Arrays.fill(keyHand, -1L);
+    }
+
+    /**
+     * Capturas posibles con la mano y la mesa dadas, de la mejor a la peor.
+     *
+     * @param hand Máscara de cartas de la mano
+     * @param table Máscara de cartas de la mesa
+     * @param out Destino de las pistas (ver codificación arriba)
+     * @param outScores Si no es null, recibe el valor de cada pista en centésimos de punto
+     * @return Cantidad de pistas escritas
+     */
+    public int hints(long hand, long table, long[] out, int[] outScores) {
+        key[0] = hand;
+        key[1] = table;
+        int perm = SuitCanonicalizer.canonicalize(key, 2);
+        hand = key[0];
+        table = key[1];
+
+        int slot = slot(hand, table);
+        base = slot * MAX_HINTS;
+        if (keyHand[slot] == hand && keyTable[slot] == table) {
+            hits++;
+        } else {
+            misses++;
+            compute(hand, table);
+            keyHand[slot] = hand;
+            keyTable[slot] = table;
+            counts[slot] = count;
+            totals[slot] = found;
+        }
+        lastTotal = totals[slot];
+        int n = Math.min(counts[slot], out.length);
+        if (perm == SuitCanonicalizer.IDENTIDAD) {
+            System.arraycopy(hints, base, out, 0, n);
+        } else {
+            int back = SuitCanonicalizer.inverse(perm);
+            for (int i = 0; i < n; i++) {
+                long hint = hints[base + i];
+                out[i] = (SuitCanonicalizer.apply(tableCards(hint), back) << 6)
+                        | SuitCanonicalizer.applyToCard(handCard(hint), back);
+            }
+        }
+        if (outScores != null) {
+            System.arraycopy(scores, base, outScores, 0, Math.min(n, outScores.length));
+        }
+        return n;
+    }
+
+    public static int handCard(long hint) {
+        return (int) (hint & 0x3F);
+    }
+
+    public static long tableCards(long hint) {
+        return hint >>> 6;
+    }
+
+    /**
+     * Capturas posibles en la última consulta, incluidas las que no entraron
+     * entre las MAX_HINTS mejores. Si supera lo que devolvió hints(), la
+     * lista está recortada.
+     */
+    public int getLastTotal() {
+        return lastTotal;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    private static int slot(long hand, long table) {
+        long h = hand * 0x9E3779B97F4A7C15L ^ table;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & (ENTRIES - 1);
+    }
+
+    private void compute(long hand, long table) {
+        this.table = table;
+        tableSize = 0;
+        for (long m = table; m != 0; m &= m - 1) {
+            tableIndices[tableSize++] = Long.numberOfTrailingZeros(m);
+        }
+        count = 0;
+        found = 0;
+        for (long m = hand; m != 0; m &= m - 1) {
+            handIndex = Long.numberOfTrailingZeros(m);
+            search(0, 15 - CardMask.gameValue(handIndex), 0L);
+        }
+    }
+
+    private void search(int from, int remaining, long chosen) {
+        for (int i = from; i < tableSize; i++) {
+            int index = tableIndices[i];
+            int value = CardMask.gameValue(index);
+            if (value == remaining) {
+                long taken = chosen | (1L << index);
+                insert((taken << 6) | handIndex, score(taken));
+            } else if (value < remaining) {
+                search(i + 1, remaining - value, chosen | (1L << index));
+            }
+        }
+    }
+
+    private int score(long taken) {
+        long cards = taken | (1L << handIndex);
+        long left = table & ~taken;
+        int value = POR_CARTA * Long.bitCount(cards)
+                + POR_ORO * Long.bitCount(cards & CardMask.OROS)
+                + POR_SIETE * Long.bitCount(cards & CardMask.SIETES)
+                + SIETE_DE_ORO * (int) ((cards >>> CardMask.SIETE_DE_ORO) & 1);
+        if (left == 0) {
+            value += ESCOBA;
+        } else {
+            // Con una sola carta (1 a 10) el rival barre si la mesa suma entre 5 y 14
+            int sum = CardMask.sumValues(left);
+            if (sum >= 5 && sum <= 14) {
+                value -= RIESGO_ESCOBA;
+            }
+        }
+        return value;
+    }
+
+    /** Inserción ordenada; si ya hay MAX_HINTS se descarta la peor. */
+    private void insert(long hint, int score) {
+        found++;
+        int pos;
+        if (count == MAX_HINTS) {
+            if (scores[base + count - 1] >= score) {
+                return;
+            }
+            pos = count - 1;
+        } else {
+            pos = count++;
+        }
+        while (pos > 0 && scores[base + pos - 1] < score) {
+            hints[base + pos] = hints[base + pos - 1];
+            scores[base + pos] = scores[base + pos - 1];
+            pos--;
+        }
+        hints[base + pos] = hint;
+        scores[base + pos] = score;
+    }
+}
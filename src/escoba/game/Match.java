@@ -0,0 +1,140 @@
+package escoba.game;
+
+/**
+ * Partido de Escoba: varias manos seguidas hasta que alguien llega al puntaje objetivo.
+ *
+ * Acumula el puntaje de cada mano, rota quién reparte (juega primero el jugador
+ * que sigue al que reparte) y detecta al ganador. Cada mano reutiliza el mismo
+ * GameState, con su mazo, mesa y jugadores, en lugar de crear objetos nuevos.
+ *
+ * Uso:
+ * <pre>
+ *   Match match = new Match(state, 15);
+ *   match.startNextHand();
+ *   ... jugar hasta state.isGameOver() ...
+ *   if (!match.completeHand()) match.startNextHand();
+ * </pre>
+ */
+public class Match {
+
+    private final GameState state;
+    private final int targetScore;
+    private final int[] totals;
+    private final int[] handScores;
+    private int dealerIndex;
+    private int handsPlayed;
+    private int winnerNumber; // 0 mientras nadie ganó
+    private boolean handCompleted; // la mano actual ya se sumó
+
+    /**
+     * @param state Mesa sobre la que se juegan todas las manos
+     * @param targetScore Puntaje que hay que alcanzar para ganar el partido
+     */
+    public Match(GameState state, int targetScore) {
+        this.state = state;
+        this.targetScore = targetScore;
+        this.totals = new int[state.getNumPlayers()];
+        this.handScores = new int[state.getNumPlayers()];
+        // Reparte el último asiento, así en la primera mano empieza el jugador 1
+        this.dealerIndex = state.getNumPlayers() - 1;
+    }
+
+    /**
+     * Reparte una mano nueva sobre el mismo GameState.
+     *
+     * @throws IllegalStateException si el partido ya terminó
+     */
+    public void startNextHand() {
+        if (isOver()) {
+            throw new IllegalStateException("El partido ya terminó");
+        }
+        int first = dealerIndex + 1 == totals.length ? 0 : dealerIndex + 1;
+        state.startNewGame(first + 1);
+        handCompleted = false;
+    }
+
+    /**
+     * Suma el puntaje de la mano terminada y pasa el reparto al siguiente jugador.
+     *
+     * @return true si el partido terminó
+     * @throws IllegalStateException si la mano todavía está en juego o ya se completó
+     */
+    public boolean completeHand() {
+        if (!state.isGameOver()) {
+            throw new IllegalStateException("La mano todavía está en juego");
+        }
+        if (handCompleted) {
+            throw new IllegalStateException("La mano ya se completó");
+        }
+        handCompleted = true;
+        int n = totals.length;
+        ScoreCalculator.calculateScores(state.getPlayers(), n, state.isTeamPlay(), handScores);
+        for (int i = 0; i < n; i++) {
+            totals[i] += handScores[i];
+        }
+        handsPlayed++;
+        dealerIndex = dealerIndex + 1 == n ? 0 : dealerIndex + 1;
+        winnerNumber = findWinner();
+        return isOver();
+    }
+
+    // Gana el que más tiene si llegó al objetivo y nadie lo iguala; si no, se juega otra mano
+    private int findWinner() {
+        int sides = state.isTeamPlay() ? 2 : totals.length;
+        int best = 0;
+        boolean tie = false;
+        for (int i = 1; i < sides; i++) {
+            if (totals[i] > totals[best]) {
+                best = i;
+                tie = false;
+            } else if (totals[i] == totals[best]) {
+                tie = true;
+            }
+        }
+        return !tie && totals[best] >= targetScore ? best + 1 : 0;
+    }
+
+    public boolean isOver() {
+        return winnerNumber != 0;
+    }
+
+    /**
+     * Número del jugador que ganó (con parejas, el primero de la pareja), o 0.
+     */
+    public int getWinnerNumber() {
+        return winnerNumber;
+    }
+
+    /**
+     * Puntaje acumulado de un jugador.
+     */
+    public int getTotal(int playerNumber) {
+        return totals[playerNumber - 1];
+    }
+
+    /**
+     * Puntaje de un jugador en la última mano completada.
+     */
+    public int getLastHandScore(int playerNumber) {
+        return handScores[playerNumber - 1];
+    }
+
+    /**
+     * Número del jugador que repartió la mano actual (o que reparte la próxima).
+     */
+    public int getDealerNumber() {
+        return dealerIndex + 1;
+    }
+
+    public int getHandsPlayed() {
+        return handsPlayed;
+    }
+
+    public int getTargetScore() {
+        return targetScore;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,60 @@
+package escoba.game;
+
+/**
+ * Representación compacta de una jugada en un único long.
+ *
+ * Los 8 bits bajos guardan el índice de la carta de la mano y los bits
+ * superiores la máscara de posiciones de la mesa a capturar (bit i = carta
+ * en la posición i de la mesa). Una máscara vacía significa poner la carta
+ * en la mesa sin capturar.
+ */
+public final class Move {
+
+    /** Valor que indica que no hay jugada. */
+    public static final long NINGUNA = -1L;
+
+    private static final int HAND_BITS = 8;
+
+    private Move() {
+    }
+
+    public static long colocar(int handSlot) {
+        return handSlot & 0xFF;
+    }
+
+    public static long capturar(int handSlot, long tableSlots) {
+        return (tableSlots << HAND_BITS) | (handSlot & 0xFF);
+    }
+
+    public static int handSlot(long move) {
+        return (int) (move & 0xFF);
+    }
+
+    public static long tableSlots(long move) {
+        return move >>> HAND_BITS;
+    }
+
+    public static boolean esCaptura(long move) {
+        return move != NINGUNA && tableSlots(move) != 0;
+    }
+
+    /**
+     * Texto legible de la jugada en el formato de comandos del juego.
+     * Ejemplo: "jugar 1 llevar 2 3"
+     */
+    public static String toString(long move) {
+        if (move == NINGUNA) {
+            return "ninguna";
+        }
+        StringBuilder sb = new StringBuilder("jugar ").append(handSlot(move) + 1);
+        long slots = tableSlots(move);
+        if (slots != 0) {
+            sb.append(" llevar");
+            while (slots != 0) {
+                sb.append(' ').append(Long.numberOfTrailingZeros(slots) + 1);
+                slots &= slots - 1;
+            }
+        }
+        return sb.toString();
+    }
+}
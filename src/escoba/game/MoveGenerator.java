@@ -0,0 +1,115 @@
+package escoba.game;
+
+import escoba.model.Card;
+
+import java.util.List;
+
+/**
+ * Genera las jugadas legales de una posición, codificadas con Move.
+ *
+ * Por cada carta de la mano: ponerla en la mesa, y cada subconjunto de la mesa
+ * que sumado a ella da 15. Los subconjuntos se buscan en profundidad podando
+ * por suma, así que el costo depende de las capturas posibles y no de 2^mesa.
+ * Reutiliza arreglos internos: no crea objetos, pero no es seguro entre hilos
+ * (usar una instancia por hilo).
+ */
+public final class MoveGenerator {
+
+    /**
+     * Cota de jugadas de una posición: 3 cartas en la mano, cada una se puede
+     * poner y a lo sumo captura los 6888 subconjuntos del mazo que suman 14.
+     * Un buffer de este tamaño nunca se llena.
+     */
+    public static final int MAX_JUGADAS = 3 * (1 + 6888);
+
+    private final int[] handValues = new int[Card.TOTAL_CARTAS];
+    private final int[] tableValues = new int[Card.TOTAL_CARTAS];
+    private int tableSize;
+    private long[] out;
+    private int count;
+    private int handSlot;
+
+    /**
+     * Jugadas legales para el jugador de la vista.
+     *
+     * @param out Destino de las jugadas
+     * @return Cantidad de jugadas escritas
+     * @throws IllegalArgumentException si las jugadas no entran en out
+     */
+    public int generate(PositionView position, long[] out) {
+        int handSize = position.getHandSize();
+        for (int i = 0; i < handSize; i++) {
+            handValues[i] = position.getHandCard(i).getGameValue();
+        }
+        tableSize = position.getTableSize();
+        for (int i = 0; i < tableSize; i++) {
+            tableValues[i] = position.getTableCard(i).getGameValue();
+        }
+        return run(handSize, out);
+    }
+
+    /**
+     * Jugadas legales para una mano y una mesa dadas como listas.
+     *
+     * @throws IllegalArgumentException si las jugadas no entran en out
+     */
+    public int generate(List<Card> hand, List<Card> table, long[] out) {
+        int handSize = hand.size();
+        for (int i = 0; i < handSize; i++) {
+            handValues[i] = hand.get(i).getGameValue();
+        }
+        tableSize = table.size();
+        for (int i = 0; i < tableSize; i++) {
+            tableValues[i] = table.get(i).getGameValue();
+        }
+        return run(handSize, out);
+    }
+
+    /**
+     * Solo las capturas de una carta de la mano, como máscaras de posiciones de la mesa.
+     *
+     * @throws IllegalArgumentException si las capturas no entran en out
+     */
+    public int generateCaptures(PositionView position, int slot, long[] out) {
+        tableSize = position.getTableSize();
+        for (int i = 0; i < tableSize; i++) {
+            tableValues[i] = position.getTableCard(i).getGameValue();
+        }
+        this.out = out;
+        this.count = 0;
+        this.handSlot = slot;
+        search(0, 15 - position.getHandCard(slot).getGameValue(), 0L);
+        // Devuelve jugadas completas; Move.tableSlots() da la máscara
+        return count;
+    }
+
+    private int run(int handSize, long[] out) {
+        this.out = out;
+        this.count = 0;
+        for (int h = 0; h < handSize; h++) {
+            add(Move.colocar(h));
+            handSlot = h;
+            search(0, 15 - handValues[h], 0L);
+        }
+        return count;
+    }
+
+    private void search(int from, int remaining, long chosen) {
+        for (int i = from; i < tableSize; i++) {
+            int value = tableValues[i];
+            if (value == remaining) {
+                add(Move.capturar(handSlot, chosen | (1L << i)));
+            } else if (value < remaining) {
+                search(i + 1, remaining - value, chosen | (1L << i));
+            }
+        }
+    }
+
+    // Una lista cortada en silencio cambiaría los resultados sin aviso
+    private void add(long move) {
+        if (count == out.length) {
+            throw new IllegalArgumentException("Más de " + out.length + " jugadas: el buffer no alcanza");
+        }
+        out[count++] = move;
+    }
+}
@@ -0,0 +1,199 @@
+package escoba.game;
+
+import escoba.model.Card;
+import escoba.model.Player;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Posición vista por un jugador, de solo lectura para las estrategias.
+ *
+ * Es una copia: mano propia, mesa, capturas y escobas de todos, tamaño de las
+ * manos ajenas y cartas en el mazo. Al ser una copia, una estrategia que sigue
+ * pensando después de su plazo no puede ver ni romper el GameState real.
+ * Se puede reutilizar con copyFrom() para no crear objetos en cada decisión.
+ */
+public final class PositionView {
+
+    private final Card[] hand = new Card[Card.TOTAL_CARTAS];
+    private final Card[] table = new Card[Card.TOTAL_CARTAS];
+    private final long[] captured = new long[GameState.MAX_JUGADORES];
+    private final int[] escobas = new int[GameState.MAX_JUGADORES];
+    private final int[] handSizes = new int[GameState.MAX_JUGADORES];
+    private int handSize;
+    private int tableSize;
+    private long handMask;
+    private long tableMask;
+    private int playerNumber;
+    private int numPlayers;
+    private boolean teamPlay;
+    private int deckSize;
+    private final CardTracker tracker = new CardTracker();
+    private Random random;
+
+    /**
+     * Crea la vista del jugador dado sobre el estado actual.
+     */
+    public static PositionView of(GameState state, int playerNumber) {
+        PositionView view = new PositionView();
+        view.copyFrom(state, playerNumber);
+        return view;
+    }
+
+    /**
+     * Copia la posición actual vista por el jugador dado.
+     */
+    public void copyFrom(GameState state, int playerNumber) {
+        this.playerNumber = playerNumber;
+        this.numPlayers = state.getNumPlayers();
+        this.teamPlay = state.isTeamPlay();
+        this.deckSize = state.getDeckSize();
+        tracker.copyFrom(state.getTracker(playerNumber));
+
+        List<Card> own = state.getPlayer(playerNumber).getHand();
+        handSize = own.size();
+        handMask = 0L;
+        for (int i = 0; i < handSize; i++) {
+            hand[i] = own.get(i);
+            handMask |= 1L << hand[i].getIndex();
+        }
+
+        List<Card> cards = state.getTable();
+        tableSize = cards.size();
+        tableMask = 0L;
+        for (int i = 0; i < tableSize; i++) {
+            table[i] = cards.get(i);
+            tableMask |= 1L << table[i].getIndex();
+        }
+
+        for (int p = 1; p <= numPlayers; p++) {
+            Player player = state.getPlayer(p);
+            captured[p - 1] = player.getCapturedMask();
+            escobas[p - 1] = player.getEscobasCount();
+            handSizes[p - 1] = player.getHandSize();
+        }
+    }
+
+    /** Número del jugador que decide. */
+    public int getPlayerNumber() {
+        return playerNumber;
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public boolean isTeamPlay() {
+        return teamPlay;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    public int getHandSize() {
+        return handSize;
+    }
+
+    public Card getHandCard(int slot) {
+        return hand[slot];
+    }
+
+    public long getHandMask() {
+        return handMask;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public Card getTableCard(int slot) {
+        return table[slot];
+    }
+
+    public long getTableMask() {
+        return tableMask;
+    }
+
+    /**
+     * Azar de la partida para las estrategias que lo necesitan. Quien juega
+     * partidas sembradas lo deriva de la semilla del reparto, así la misma
+     * semilla repite también las decisiones. copyFrom() no lo cambia.
+     *
+     * @return El generador, o null si la partida no es reproducible
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Cartas que este jugador todavía no vio (manos ajenas y mazo).
+     */
+    public CardTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Probabilidad de que el próximo rival tenga una carta del valor dado.
+     * Si tiene la mano vacía, se cuenta la que recibe en el próximo reparto.
+     */
+    public double probabilityNextOpponentHolds(int value) {
+        int next = playerNumber % numPlayers;
+        int cards = handSizes[next];
+        if (cards == 0 && deckSize > 0) {
+            cards = 3;
+        }
+        return tracker.probabilityHolds(value, cards);
+    }
+
+    public long getCapturedMask(int playerNumber) {
+        return captured[playerNumber - 1];
+    }
+
+    public int getEscobas(int playerNumber) {
+        return escobas[playerNumber - 1];
+    }
+
+    public int getHandSize(int playerNumber) {
+        return handSizes[playerNumber - 1];
+    }
+
+    /**
+     * Verifica que una jugada sea legal en esta posición.
+     */
+    public boolean isLegal(long move) {
+        if (move == Move.NINGUNA || Move.handSlot(move) >= handSize) {
+            return false;
+        }
+        long slots = Move.tableSlots(move);
+        if (slots == 0) {
+            return true;
+        }
+        if (64 - Long.numberOfLeadingZeros(slots) > tableSize) {
+            return false;
+        }
+        int sum = hand[Move.handSlot(move)].getGameValue();
+        while (slots != 0) {
+            sum += table[Long.numberOfTrailingZeros(slots)].getGameValue();
+            slots &= slots - 1;
+        }
+        return sum == 15;
+    }
+
+    /**
+     * Máscara de las cartas de la mesa indicadas por una máscara de posiciones.
+     */
+    public long tableCards(long tableSlots) {
+        long cards = 0L;
+        while (tableSlots != 0) {
+            cards |= 1L << table[Long.numberOfTrailingZeros(tableSlots)].getIndex();
+            tableSlots &= tableSlots - 1;
+        }
+        return cards;
+    }
+}
@@ -1,6 +1,8 @@
 package escoba.game;
 
+import escoba.metrics.GameMetrics;
 import escoba.model.Card;
+import escoba.model.CardMask;
 import escoba.model.Player;
 
 import java.util.List;
@@ -13,10 +15,149 @@ import java.util.List;
  *  * - 1 punto por la mayoría de las cartas de Oro
  *  * - 1 punto por tener el 7 de Oro
  *  * - 1 punto por la mayoría de los 7
+ *
+ * Con más de dos jugadores, una mayoría solo puntúa si nadie la iguala.
+ * En el juego por parejas se suman las capturas y escobas de cada pareja.
  */
 public class ScoreCalculator {
 
+    /** Categorías de puntaje, en el orden de calculateBreakdown(). */
+    public static final int CAT_ESCOBAS = 0;
+    public static final int CAT_CARTAS = 1;
+    public static final int CAT_OROS = 2;
+    public static final int CAT_SIETE_DE_ORO = 3;
+    public static final int CAT_SIETES = 4;
+    public static final int NUM_CATEGORIAS = 5;
+
+    // Lados de una mesa: jugadores sueltos o, con parejas, dos
+    private static final int MAX_LADOS = GameState.MAX_JUGADORES;
+
+    /** Arreglos de trabajo de un hilo, para no crear objetos por cálculo. */
+    private static final class Scratch {
+        final long[] captured = new long[GameState.MAX_JUGADORES];
+        final int[] escobas = new int[GameState.MAX_JUGADORES];
+        final long[] sideMasks = new long[MAX_LADOS];
+        final int[] points = new int[MAX_LADOS * NUM_CATEGORIAS];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Calcula el puntaje de todos los jugadores de una mesa.
+     * Copia las capturas y escobas de cada jugador y usa el cálculo por máscaras.
+     *
+     * @param players Jugadores en orden de asiento
+     * @param n Cantidad de jugadores
+     * @param teams Si se juega por parejas (asientos pares contra impares)
+     * @param out Puntaje de cada jugador; con parejas, el de su pareja
+     */
+    public static void calculateScores(Player[] players, int n, boolean teams, int[] out) {
+        Scratch s = SCRATCH.get();
+        copyPlayers(players, n, s);
+        calculateScores(s.captured, s.escobas, n, teams, out);
+    }
+
+    /**
+     * Calcula los puntos de cada jugador por categoría.
+     *
+     * @param out Arreglo de n * NUM_CATEGORIAS: out[i * NUM_CATEGORIAS + cat]
+     *            son los puntos del jugador i en la categoría cat (CAT_*)
+     */
+    public static void calculateBreakdown(Player[] players, int n, boolean teams, int[] out) {
+        Scratch s = SCRATCH.get();
+        copyPlayers(players, n, s);
+        calculateBreakdown(s.captured, s.escobas, n, teams, out);
+    }
+
+    /**
+     * Calcula el puntaje de todos los jugadores a partir de la máscara de
+     * capturas y las escobas de cada asiento. Las máscaras de cada lado se
+     * arman en una pasada y cada categoría se adjudica una sola vez, sin
+     * crear objetos.
+     *
+     * @param captured Máscara de capturas de cada jugador
+     * @param escobas Escobas de cada jugador
+     * @param n Cantidad de jugadores
+     * @param teams Si se juega por parejas (asientos pares contra impares)
+     * @param out Puntaje de cada jugador; con parejas, el de su pareja
+     */
+    public static void calculateScores(long[] captured, int[] escobas, int n, boolean teams, int[] out) {
+        long inicio = GameMetrics.start();
+        int[] points = award(captured, escobas, n, teams, SCRATCH.get());
+        for (int i = 0; i < n; i++) {
+            int base = (teams ? i & 1 : i) * NUM_CATEGORIAS;
+            int total = 0;
+            for (int cat = 0; cat < NUM_CATEGORIAS; cat++) {
+                total += points[base + cat];
+            }
+            out[i] = total;
+        }
+        GameMetrics.stop(GameMetrics.PUNTAJE, inicio);
+    }
+
+    /**
+     * calculateBreakdown a partir de la máscara de capturas y las escobas de cada asiento.
+     */
+    public static void calculateBreakdown(long[] captured, int[] escobas, int n, boolean teams, int[] out) {
+        long inicio = GameMetrics.start();
+        int[] points = award(captured, escobas, n, teams, SCRATCH.get());
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(points, (teams ? i & 1 : i) * NUM_CATEGORIAS, out, i * NUM_CATEGORIAS, NUM_CATEGORIAS);
+        }
+        GameMetrics.stop(GameMetrics.PUNTAJE, inicio);
+    }
+
+    private static void copyPlayers(Player[] players, int n, Scratch s) {
+        for (int i = 0; i < n; i++) {
+            s.captured[i] = players[i].getCapturedMask();
+            s.escobas[i] = players[i].getEscobasCount();
+        }
+    }
+
+    // Puntos de cada lado por categoría: points[lado * NUM_CATEGORIAS + cat]
+    private static int[] award(long[] captured, int[] escobas, int n, boolean teams, Scratch s) {
+        int sides = teams ? 2 : n;
+        long[] masks = s.sideMasks;
+        int[] points = s.points;
+        for (int side = 0; side < sides; side++) {
+            masks[side] = 0L;
+            points[side * NUM_CATEGORIAS + CAT_ESCOBAS] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int side = teams ? i & 1 : i;
+            masks[side] |= captured[i];
+            points[side * NUM_CATEGORIAS + CAT_ESCOBAS] += escobas[i];
+        }
+        for (int side = 0; side < sides; side++) {
+            points[side * NUM_CATEGORIAS + CAT_SIETE_DE_ORO] = (int) (masks[side] >>> CardMask.SIETE_DE_ORO) & 1;
+        }
+        awardMost(masks, sides, CardMask.ALL, CAT_CARTAS, points);
+        awardMost(masks, sides, CardMask.OROS, CAT_OROS, points);
+        awardMost(masks, sides, CardMask.SIETES, CAT_SIETES, points);
+        return points;
+    }
+
+    // 1 punto al lado con estrictamente más cartas de la categoría que cualquier otro
+    private static void awardMost(long[] masks, int sides, long category, int cat, int[] points) {
+        int best = 0;
+        int winner = -1;
+        for (int side = 0; side < sides; side++) {
+            int count = Long.bitCount(masks[side] & category);
+            points[side * NUM_CATEGORIAS + cat] = 0;
+            if (count > best) {
+                best = count;
+                winner = side;
+            } else if (count == best) {
+                winner = -1;
+            }
+        }
+        if (winner >= 0) {
+            points[winner * NUM_CATEGORIAS + cat] = 1;
+        }
+    }
+
     public static int calculateScore(Player player, Player opponent) {
+        long inicio = GameMetrics.start();
         int score = 0;
 
         // Points from escobas
@@ -46,6 +187,7 @@ public class ScoreCalculator {
             score++;
         }
 
+        GameMetrics.stop(GameMetrics.PUNTAJE, inicio);
         return score;
     }
 
@@ -106,4 +248,67 @@ public class ScoreCalculator {
 
         return sb.toString();
     }
+
+    /**
+     * Desglose de puntos de un jugador en una mesa de N jugadores.
+     * Cada mayoría se compara contra el mejor de los demás jugadores.
+     */
+    public static String getScoreBreakdown(Player[] players, int n, int index) {
+        long own = players[index].getCapturedMask();
+        long[] others = new long[n - 1];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (i != index) {
+                others[j++] = players[i].getCapturedMask();
+            }
+        }
+        return breakdown(players[index].getName(), own, players[index].getEscobasCount(), others);
+    }
+
+    /**
+     * Desglose de puntos de una pareja (0 = asientos 1 y 3, 1 = asientos 2 y 4).
+     */
+    public static String getTeamScoreBreakdown(Player[] players, int n, int team) {
+        long own = 0L;
+        long rival = 0L;
+        int escobas = 0;
+        for (int i = 0; i < n; i++) {
+            if ((i & 1) == team) {
+                own |= players[i].getCapturedMask();
+                escobas += players[i].getEscobasCount();
+            } else {
+                rival |= players[i].getCapturedMask();
+            }
+        }
+        String name = players[team].getName() + " y " + players[team + 2].getName();
+        return breakdown(name, own, escobas, new long[]{rival});
+    }
+
+    private static String breakdown(String name, long own, int escobas, long[] others) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name + " - Desglose de Puntos:\n");
+        sb.append("  Escobas: " + escobas + " x 1 = " + escobas + " pts\n");
+
+        int cardsPoint = mostLine(sb, "Más cartas", own, others, CardMask.ALL);
+        int goldsPoint = mostLine(sb, "Más Oros", own, others, CardMask.OROS);
+
+        int goldSevenPoint = (int) (own >>> CardMask.SIETE_DE_ORO) & 1;
+        sb.append("  7 de Oro: " + (goldSevenPoint == 1 ? "Sí" : "No") + " = " + goldSevenPoint + " pt\n");
+
+        int sevensPoint = mostLine(sb, "Más 7s", own, others, CardMask.SIETES);
+
+        int total = escobas + cardsPoint + goldsPoint + goldSevenPoint + sevensPoint;
+        sb.append("  TOTAL: " + total + " puntos\n");
+        return sb.toString();
+    }
+
+    private static int mostLine(StringBuilder sb, String label, long own, long[] others, long category) {
+        int count = Long.bitCount(own & category);
+        int best = 0;
+        for (long other : others) {
+            best = Math.max(best, Long.bitCount(other & category));
+        }
+        int point = count > best ? 1 : 0;
+        sb.append("  " + label + ": " + count + " vs " + best + " = " + point + " pt\n");
+        return point;
+    }
 }
@@ -0,0 +1,26 @@
+package escoba.game;
+
+/**
+ * Estrategia de un jugador automático (bot).
+ *
+ * Recibe una copia de la posición y devuelve una jugada codificada con Move.
+ * Debe respetar el plazo: el GameController corta la decisión al vencer y
+ * juega una carta por defecto. Las implementaciones no deben guardar estado
+ * compartido entre mesas, ya que se pueden usar desde varios hilos.
+ */
+public interface Strategy {
+
+    /**
+     * Nombre corto para informes y métricas.
+     */
+    String getName();
+
+    /**
+     * Elige una jugada.
+     *
+     * @param position Posición vista por el jugador que decide
+     * @param deadlineNanos Momento (System.nanoTime) en que se corta la decisión
+     * @return Jugada legal codificada con Move
+     */
+    long chooseMove(PositionView position, long deadlineNanos);
+}
@@ -0,0 +1,239 @@
+package escoba.game;
+
+import escoba.metrics.LogHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta decisiones de estrategias con plazo duro y mide su latencia.
+ *
+ * Con plazo duro, cada decisión corre en un pool acotado de hilos y, si no
+ * termina a tiempo, se abandona y se juega la primera carta de la mano. Una
+ * estrategia que ignora la interrupción sigue ocupando su hilo: esas
+ * decisiones se cuentan (getAbandonedCount) y, mientras no terminen, el pool
+ * no crea hilos nuevos; si no hay lugar, la decisión se corta de inmediato.
+ *
+ * Con inline(presupuesto) la decisión corre en el hilo que llama y recibe el
+ * plazo, pero no se la puede cortar: solo se cuentan las que se pasan. Sin
+ * plazo (0) la decisión corre en el hilo que llama sin límite, para
+ * simulaciones masivas.
+ *
+ * Una jugada ilegal o una excepción se reemplazan por la primera carta.
+ */
+public class StrategyRunner {
+
+    // Estados de una decisión con plazo duro
+    private static final int PENDIENTE = 0;
+    private static final int CORRIENDO = 1;
+    private static final int TERMINADA = 2;
+    private static final int ABANDONADA = 3;
+
+    private final long timeoutNanos;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, LogHistogram> latencies = new ConcurrentHashMap<>();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    /**
+     * Con plazo duro usa un hilo por procesador.
+     *
+     * @param timeout Plazo por decisión (0 = sin plazo, en el mismo hilo)
+     * @param unit Unidad del plazo
+     */
+    public StrategyRunner(long timeout, TimeUnit unit) {
+        this(timeout, unit, timeout > 0 ? Runtime.getRuntime().availableProcessors() : 0);
+    }
+
+    /**
+     * @param timeout Plazo duro por decisión (0 = sin plazo, en el mismo hilo)
+     * @param unit Unidad del plazo
+     * @param threads Hilos del pool de decisiones (con plazo)
+     */
+    public StrategyRunner(long timeout, TimeUnit unit, int threads) {
+        this(unit.toNanos(timeout), timeout > 0 ? newPool(threads) : null);
+    }
+
+    private StrategyRunner(long timeoutNanos, ThreadPoolExecutor executor) {
+        this.timeoutNanos = timeoutNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * Decisiones en el hilo que llama, con el plazo dado como presupuesto.
+     * La estrategia lo recibe como deadline; si se pasa, no se la corta.
+     */
+    public static StrategyRunner inline(long budget, TimeUnit unit) {
+        return new StrategyRunner(unit.toNanos(budget), (ThreadPoolExecutor) null);
+    }
+
+    private static ThreadPoolExecutor newPool(int threads) {
+        int n = Math.max(1, threads);
+        // Cola corta: si todos los hilos están trabados, esperar no sirve
+        return new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(n * 4), r -> {
+            Thread t = new Thread(r, "escoba-bot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Pide una jugada a la estrategia y garantiza que sea legal.
+     *
+     * @param strategy Estrategia a consultar
+     * @param position Posición del jugador que decide
+     * @return Jugada legal codificada con Move
+     */
+    public long decide(Strategy strategy, PositionView position) {
+        long start = System.nanoTime();
+        long move;
+        if (executor == null) {
+            long deadline = timeoutNanos > 0 ? start + timeoutNanos : Long.MAX_VALUE;
+            move = decideInline(strategy, position, deadline);
+            if (System.nanoTime() - deadline > 0) {
+                overruns.increment();
+            }
+        } else {
+            move = decideWithDeadline(strategy, position, start + timeoutNanos);
+        }
+        latencies.computeIfAbsent(strategy.getName(), LogHistogram::new).recordSince(start);
+
+        if (!position.isLegal(move)) {
+            failures.increment();
+            return Move.colocar(0);
+        }
+        return move;
+    }
+
+    private long decideInline(Strategy strategy, PositionView position, long deadline) {
+        try {
+            return strategy.chooseMove(position, deadline);
+        } catch (RuntimeException e) {
+            return Move.NINGUNA;
+        }
+    }
+
+    private long decideWithDeadline(Strategy strategy, PositionView position, long deadline) {
+        Decision decision = new Decision(strategy, position, deadline);
+        Future<Long> future;
+        try {
+            future = executor.submit(decision);
+        } catch (RejectedExecutionException e) {
+            // Pool lleno de decisiones abandonadas que no terminan
+            cutoffs.increment();
+            return Move.colocar(0);
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(decision, future);
+            cutoffs.increment();
+            return Move.colocar(0);
+        } catch (ExecutionException e) {
+            return Move.NINGUNA;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(decision, future);
+            return Move.colocar(0);
+        }
+    }
+
+    private void abandon(Decision decision, Future<Long> future) {
+        // Si ya estaba corriendo sigue ocupando su hilo hasta que la estrategia vuelva
+        if (decision.state.compareAndSet(CORRIENDO, ABANDONADA)) {
+            abandoned.incrementAndGet();
+        } else {
+            decision.state.compareAndSet(PENDIENTE, ABANDONADA);
+        }
+        future.cancel(true);
+    }
+
+    /** Una decisión en el pool; lleva la cuenta de las abandonadas que siguen corriendo. */
+    private final class Decision implements Callable<Long> {
+        private final Strategy strategy;
+        private final PositionView position;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDIENTE);
+
+        Decision(Strategy strategy, PositionView position, long deadline) {
+            this.strategy = strategy;
+            this.position = position;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Long call() {
+            if (!state.compareAndSet(PENDIENTE, CORRIENDO)) {
+                return Move.NINGUNA;    // se abandonó antes de empezar
+            }
+            try {
+                return strategy.chooseMove(position, deadline);
+            } finally {
+                if (!state.compareAndSet(CORRIENDO, TERMINADA)) {
+                    abandoned.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Histograma de latencias de decisión de una estrategia, o null si nunca decidió.
+     */
+    public LogHistogram getLatencies(String strategyName) {
+        return latencies.get(strategyName);
+    }
+
+    /** Decisiones cortadas por plazo. */
+    public long getCutoffCount() {
+        return cutoffs.sum();
+    }
+
+    /**
+     * Decisiones abandonadas por plazo que todavía ocupan un hilo del pool
+     * (estrategias que no atienden la interrupción).
+     */
+    public int getAbandonedCount() {
+        return abandoned.get();
+    }
+
+    /** Decisiones en el hilo que llama que terminaron después de su plazo. */
+    public long getOverrunCount() {
+        return overruns.sum();
+    }
+
+    /** Decisiones ilegales o que lanzaron excepción. */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Resumen de latencias por estrategia y de cortes.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder("Decisiones de bots (cortes por plazo: " + cutoffs.sum()
+                + ", abandonadas en curso: " + abandoned.get() + ", pasadas de plazo: " + overruns.sum()
+                + ", jugadas inválidas: " + failures.sum() + ")\n");
+        for (LogHistogram histogram : latencies.values()) {
+            sb.append("  ").append(histogram.summary(TimeUnit.MICROSECONDS)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package escoba.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de los caminos calientes del juego, en el registro por defecto.
+ *
+ * Están apagadas salvo que se llame a setEnabled(true) o se arranque con
+ * -Descoba.metrics=true. Apagadas cuestan una lectura de un campo por evento.
+ * Encendidas, cada latencia son dos System.nanoTime() y los incrementos del
+ * histograma; cada contador, un LongAdder.increment().
+ *
+ * Uso en el código medido:
+ * <pre>
+ *     long inicio = GameMetrics.start();
+ *     ...
+ *     GameMetrics.stop(GameMetrics.JUGAR_CARTA, inicio);
+ * </pre>
+ */
+public final class GameMetrics {
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    /** Latencias en nanosegundos. */
+    public static final LogHistogram JUGAR_CARTA = REGISTRY.histogram("escoba_jugar_carta_ns");
+    public static final LogHistogram CAPTURA = REGISTRY.histogram("escoba_intentar_captura_ns");
+    public static final LogHistogram TURNO = REGISTRY.histogram("escoba_next_turn_ns");
+    public static final LogHistogram NOTIFICACION = REGISTRY.histogram("escoba_notify_observers_ns");
+    public static final LogHistogram RENDER = REGISTRY.histogram("escoba_display_game_state_ns");
+    public static final LogHistogram PUNTAJE = REGISTRY.histogram("escoba_score_calculator_ns");
+
+    /** Contadores de actividad. */
+    public static final LongAdder JUGADAS = REGISTRY.counter("escoba_jugadas_total");
+    public static final LongAdder CAPTURAS = REGISTRY.counter("escoba_capturas_total");
+    public static final LongAdder ESCOBAS = REGISTRY.counter("escoba_escobas_total");
+    public static final LongAdder PARTIDAS_INICIADAS = REGISTRY.counter("escoba_partidas_iniciadas_total");
+    public static final LongAdder PARTIDAS_TERMINADAS = REGISTRY.counter("escoba_partidas_terminadas_total");
+
+    private static volatile boolean enabled = Boolean.getBoolean("escoba.metrics");
+
+    private GameMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Marca de tiempo para stop(), o 0 si las métricas están apagadas.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Registra el tiempo desde start(); no hace nada si start() devolvió 0.
+     */
+    public static void stop(LogHistogram histogram, long start) {
+        if (start != 0L) {
+            histogram.recordSince(start);
+        }
+    }
+
+    /**
+     * Incrementa el contador si las métricas están encendidas.
+     */
+    public static void count(LongAdder counter) {
+        if (enabled) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package escoba.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores (típicamente latencias en nanosegundos) con buckets
+ * logarítmicos al estilo HDR: 16 sub-buckets por potencia de 2, lo que da un
+ * error relativo máximo de 1/16 en los percentiles.
+ *
+ * Registrar un valor es un cálculo de bits y un incremento atómico, sin locks
+ * ni objetos, así que se puede usar desde muchos hilos en caminos calientes.
+ * La cantidad total no se lleva aparte: se suma de los buckets al consultarla.
+ * La suma es un LongAdder, que reparte los incrementos entre celdas cuando
+ * hay contención, y el máximo se lee antes de intentar un CAS: casi nunca hay
+ * uno nuevo, así que en el caso común registrar no escribe en una línea
+ * compartida por todos los hilos.
+ */
+public final class LogHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB + (64 - SUB_BITS) * SUB;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LogHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Registra un valor (los negativos cuentan como 0).
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        long current = max.get();
+        // Solo se escribe si la lectura muestra un máximo nuevo
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde startNanos (System.nanoTime()).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return SUB + shift * SUB + (int) (value >>> shift) - SUB;
+    }
+
+    // Mayor valor que cae en el bucket (se informa como cota superior)
+    static long upperBound(int index) {
+        if (index < SUB) {
+            return index;
+        }
+        int shift = (index - SUB) / SUB;
+        long mantissa = SUB + (index - SUB) % SUB;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /** Suma de todos los valores registrados. */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Valor por debajo del cual cae la fracción q de las muestras.
+     *
+     * @param q Fracción entre 0 y 1 (por ejemplo 0.99)
+     */
+    public long getPercentile(double q) {
+        long n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Copia los contadores por bucket a un arreglo.
+     * Útil para exportadores que publican el histograma completo.
+     */
+    public long[] snapshotCounts() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Cota superior del bucket i, para interpretar snapshotCounts().
+     */
+    public static long bucketUpperBound(int i) {
+        return upperBound(i);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Resumen en una línea, con los tiempos convertidos a la unidad dada.
+     */
+    public String summary(TimeUnit unit) {
+        double scale = unit.toNanos(1);
+        String u = unitName(unit);
+        return String.format("%s: n=%d media=%.2f%s p50=%.2f%s p99=%.2f%s p99.9=%.2f%s max=%.2f%s",
+                name, getCount(),
+                getMean() / scale, u,
+                getPercentile(0.50) / scale, u,
+                getPercentile(0.99) / scale, u,
+                getPercentile(0.999) / scale, u,
+                getMax() / scale, u);
+    }
+
+    private static String unitName(TimeUnit unit) {
+        switch (unit) {
+            case NANOSECONDS: return "ns";
+            case MICROSECONDS: return "us";
+            case MILLISECONDS: return "ms";
+            case SECONDS: return "s";
+            default: return unit.name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package escoba.metrics;
+
+/**
+ * Convierte el contenido de un registro de métricas a un formato de salida.
+ */
+public interface MetricsExporter {
+
+    /**
+     * Escribe todas las métricas del registro.
+     *
+     * @param registry Registro a exportar
+     * @param out Destino del texto
+     */
+    void export(MetricsRegistry registry, StringBuilder out);
+
+    /**
+     * Tipo de contenido del texto generado (para servirlo por HTTP).
+     */
+    String contentType();
+}
@@ -0,0 +1,65 @@
+package escoba.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas por nombre: histogramas de latencia y contadores.
+ *
+ * Los nombres siguen la convención de Prometheus (minúsculas y guiones bajos).
+ * Registrar o buscar una métrica recorre un mapa, así que los caminos calientes
+ * deben guardar la referencia una vez (ver GameMetrics) y solo llamar a
+ * record o increment. Los contadores son LongAdder para que muchos hilos
+ * puedan incrementarlos sin competir por una misma línea de caché.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // Ordenados por nombre para que los exportadores den siempre la misma salida
+    private final Map<String, LogHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+
+    /**
+     * Registro compartido por todo el proceso.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Histograma con el nombre dado; se crea la primera vez que se pide.
+     */
+    public LogHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LogHistogram::new);
+    }
+
+    /**
+     * Contador con el nombre dado; se crea la primera vez que se pide.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public Map<String, LogHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    public Map<String, LongAdder> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Pone en cero todas las métricas sin olvidar las referencias ya repartidas.
+     */
+    public void reset() {
+        for (LogHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+}
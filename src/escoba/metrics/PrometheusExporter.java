@@ -0,0 +1,87 @@
+package escoba.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Formato de exposición de texto de Prometheus.
+ *
+ * Los contadores salen como counter. Los histogramas salen como summary con
+ * los cuantiles 0.5, 0.9, 0.99 y 0.999; los que terminan en _ns se publican en
+ * segundos (sufijo _seconds), que es la unidad que espera Prometheus.
+ */
+public final class PrometheusExporter implements MetricsExporter {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    @Override
+    public void export(MetricsRegistry registry, StringBuilder out) {
+        for (Map.Entry<String, LongAdder> entry : registry.getCounters().entrySet()) {
+            String name = entry.getKey();
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue().sum()).append('\n');
+        }
+        for (LogHistogram histogram : registry.getHistograms().values()) {
+            String name = histogram.getName();
+            double scale = 1.0;
+            if (name.endsWith("_ns")) {
+                name = name.substring(0, name.length() - 3) + "_seconds";
+                scale = 1e-9;
+            }
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double q : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(q).append("\"} ")
+                        .append(histogram.getPercentile(q) * scale).append('\n');
+            }
+            out.append(name).append("_sum ").append(histogram.getSum() * scale).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+    }
+
+    @Override
+    public String contentType() {
+        return "text/plain; version=0.0.4; charset=utf-8";
+    }
+
+    /**
+     * Sirve las métricas del registro en http://127.0.0.1:puerto/metrics con
+     * el exportador dado. Usa un solo hilo daemon; detener con stop(0).
+     *
+     * @param port Puerto local (0 elige uno libre)
+     */
+    public static HttpServer serve(MetricsRegistry registry, MetricsExporter exporter, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            StringBuilder sb = new StringBuilder(4096);
+            exporter.export(registry, sb);
+            byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", exporter.contentType());
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "escoba-metrics");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        return server;
+    }
+
+    /**
+     * Sirve el registro por defecto en formato Prometheus.
+     */
+    public static HttpServer serve(int port) throws IOException {
+        return serve(MetricsRegistry.getDefault(), new PrometheusExporter(), port);
+    }
+}
@@ -0,0 +1,52 @@
+package escoba.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Volcado legible: un contador por línea y el resumen de cada histograma.
+ */
+public final class TextMetricsExporter implements MetricsExporter {
+
+    private final TimeUnit unit;
+
+    /**
+     * @param unit Unidad en la que se muestran las latencias
+     */
+    public TextMetricsExporter(TimeUnit unit) {
+        this.unit = unit;
+    }
+
+    public TextMetricsExporter() {
+        this(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public void export(MetricsRegistry registry, StringBuilder out) {
+        out.append("Contadores:\n");
+        for (Map.Entry<String, LongAdder> entry : registry.getCounters().entrySet()) {
+            out.append("  ").append(entry.getKey()).append(" = ").append(entry.getValue().sum()).append('\n');
+        }
+        out.append("Latencias:\n");
+        for (LogHistogram histogram : registry.getHistograms().values()) {
+            if (histogram.getCount() > 0) {
+                out.append("  ").append(histogram.summary(unit)).append('\n');
+            }
+        }
+    }
+
+    @Override
+    public String contentType() {
+        return "text/plain; charset=utf-8";
+    }
+
+    /**
+     * Volcado del registro por defecto, para imprimir al terminar un proceso.
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        new TextMetricsExporter().export(MetricsRegistry.getDefault(), sb);
+        return sb.toString();
+    }
+}
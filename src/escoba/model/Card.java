@@ -19,11 +19,29 @@ package escoba.model;
  */
 public class Card {
 
+    /** Cantidad de cartas de la baraja española. */
+    public static final int TOTAL_CARTAS = 40;
+
+    // Orden de los palos para el índice compacto (Oro primero)
+    private static final String[] SUITS = {"Oro", "Copa", "Espada", "Basto"};
+
+    // Una instancia compartida por cada índice (0-39)
+    private static final Card[] BY_INDEX = new Card[TOTAL_CARTAS];
+
+    static {
+        for (int i = 0; i < TOTAL_CARTAS; i++) {
+            int value = i % 10 + 1;
+            BY_INDEX[i] = new Card(value <= 7 ? value : value + 2, SUITS[i / 10]);
+        }
+    }
+
     private int cardNumber;// Número interno de la carta (1-7, 10-12)
 
 
     private String suit;// Palo de la carta (Oro, Copa, Espada, Basto)
 
+    private int index;// Índice compacto 0-39 (palo * 10 + valor de juego - 1)
+
     /**
      * Constructor de la carta.
      *
@@ -33,6 +51,41 @@ public class Card {
     public Card(int cardNumber, String suit) {
         this.cardNumber = cardNumber;
         this.suit = suit;
+        this.index = computeIndex(cardNumber, suit);
+    }
+
+    /**
+     * Obtiene la carta compartida que corresponde a un índice compacto.
+     *
+     * @param index Índice de la carta (0-39)
+     * @return La carta con ese índice
+     */
+    public static Card fromIndex(int index) {
+        return BY_INDEX[index];
+    }
+
+    /**
+     * Obtiene el índice del palo (0=Oro, 1=Copa, 2=Espada, 3=Basto).
+     *
+     * @param suit Nombre del palo
+     * @return Índice del palo, o -1 si no es un palo de la baraja española
+     */
+    public static int suitIndex(String suit) {
+        for (int i = 0; i < SUITS.length; i++) {
+            if (SUITS[i].equals(suit)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int computeIndex(int cardNumber, String suit) {
+        int suitIdx = suitIndex(suit);
+        if (suitIdx < 0) {
+            return -1;
+        }
+        int value = cardNumber <= 7 ? cardNumber : cardNumber - 2;
+        return suitIdx * 10 + value - 1;
     }
 
     /**
@@ -77,6 +130,18 @@ public class Card {
         return cardNumber;
     }
 
+    /**
+     * Obtiene el índice compacto de la carta (0-39).
+     * Las cartas de Oro ocupan 0-9, Copa 10-19, Espada 20-29 y Basto 30-39;
+     * dentro de cada palo el orden sigue el valor de juego (As=0 ... Rey=9).
+     * Se usa para representar conjuntos de cartas como máscaras de bits.
+     *
+     * @return Índice de la carta
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Obtiene el nombre de la carta en español.
      *
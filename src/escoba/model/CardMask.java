@@ -0,0 +1,60 @@
+package escoba.model;
+
+import java.util.List;
+
+/**
+ * Operaciones sobre conjuntos de cartas representados como máscaras de bits.
+ * El bit i de la máscara corresponde a la carta con índice i (ver Card.getIndex()).
+ */
+public final class CardMask {
+
+    /** Máscara con las 40 cartas de la baraja. */
+    public static final long ALL = (1L << Card.TOTAL_CARTAS) - 1;
+
+    /** Máscara con las 10 cartas de Oro. */
+    public static final long OROS = 0x3FFL;
+
+    /** Máscara con los cuatro 7. */
+    public static final long SIETES = (1L << 6) | (1L << 16) | (1L << 26) | (1L << 36);
+
+    /** Índice del 7 de Oro. */
+    public static final int SIETE_DE_ORO = 6;
+
+    private CardMask() {
+    }
+
+    public static long bit(Card card) {
+        return 1L << card.getIndex();
+    }
+
+    public static long of(List<Card> cards) {
+        long mask = 0L;
+        for (int i = 0; i < cards.size(); i++) {
+            mask |= 1L << cards.get(i).getIndex();
+        }
+        return mask;
+    }
+
+    public static int count(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Valor de juego (1-10) de la carta con el índice dado.
+     */
+    public static int gameValue(int index) {
+        return index % 10 + 1;
+    }
+
+    /**
+     * Suma de los valores de juego de todas las cartas de la máscara.
+     */
+    public static int sumValues(long mask) {
+        int sum = 0;
+        while (mask != 0) {
+            sum += Long.numberOfTrailingZeros(mask) % 10 + 1;
+            mask &= mask - 1;
+        }
+        return sum;
+    }
+}
@@ -3,6 +3,7 @@ package escoba.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 /**
  * CLASE: Deck (Mazo)
@@ -65,6 +66,18 @@ public class Deck {
         }
     }
 
+    /**
+     * Vuelve a llenar el mazo con las 40 cartas, reutilizando la misma lista.
+     * Usa las cartas compartidas de Card.fromIndex(), así que no crea objetos.
+     * Después de reset() hay que llamar a shuffle().
+     */
+    public void reset() {
+        cards.clear();
+        for (int i = 0; i < Card.TOTAL_CARTAS; i++) {
+            cards.add(Card.fromIndex(i));
+        }
+    }
+
     /**
      * Mezcla las cartas del mazo aleatoriamente.
      *
@@ -79,6 +92,17 @@ public class Deck {
         Collections.shuffle(cards);
     }
 
+    /**
+     * Mezcla las cartas con un generador dado.
+     * Con la misma semilla se obtiene siempre el mismo reparto, lo que permite
+     * repetir partidas en simulaciones y torneos.
+     *
+     * @param random Generador de números aleatorios
+     */
+    public void shuffle(Random random) {
+        Collections.shuffle(cards, random);
+    }
+
     /**
      * Saca una carta del mazo.
      *
@@ -125,4 +149,31 @@ public class Deck {
     public int remainingCards() {
         return cards.size();
     }
+
+    /**
+     * Copia los índices (0-39) de las cartas que quedan, en orden de salida.
+     *
+     * @param out Arreglo destino, de al menos remainingCards() posiciones
+     * @return Cantidad de índices copiados
+     */
+    public int copyIndices(byte[] out) {
+        for (int i = 0; i < cards.size(); i++) {
+            out[i] = (byte) cards.get(i).getIndex();
+        }
+        return cards.size();
+    }
+
+    /**
+     * Reemplaza el contenido del mazo por las cartas indicadas, en ese orden.
+     * Usa las cartas compartidas de Card.fromIndex().
+     *
+     * @param indices Índices de las cartas (la primera es la próxima en salir)
+     * @param count Cantidad de cartas
+     */
+    public void load(byte[] indices, int count) {
+        cards.clear();
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.fromIndex(indices[i]));
+        }
+    }
 }
@@ -56,6 +56,15 @@ public class Player {
         escobasCount++;
     }
 
+    /**
+     * Vacía la mano y las cartas capturadas y pone las escobas en cero.
+     */
+    public void clear() {
+        hand.clear();
+        capturedCards.clear();
+        escobasCount = 0;
+    }
+
     public boolean hasCardsInHand() {
         return !hand.isEmpty();
     }
@@ -67,4 +76,12 @@ public class Player {
     public int getCapturedCount() {
         return capturedCards.size();
     }
+
+    public long getHandMask() {
+        return CardMask.of(hand);
+    }
+
+    public long getCapturedMask() {
+        return CardMask.of(capturedCards);
+    }
 }
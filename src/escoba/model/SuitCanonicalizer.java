@@ -0,0 +1,129 @@
+package escoba.model;
+
+/**
+ * Forma canónica de posiciones bajo permutaciones de palos.
+ *
+ * Para el puntaje solo importan los Oros y el 7 de Oro: Copa, Espada y Basto
+ * son intercambiables. Dos posiciones que difieren en una permutación de esos
+ * tres palos son equivalentes, así que un caché indexado por la forma canónica
+ * guarda una sola entrada donde antes había hasta seis.
+ *
+ * Cada palo ocupa un bloque de 10 bits en las máscaras (ver Card.getIndex()),
+ * por lo que permutar palos es mover bloques. Las seis permutaciones se
+ * identifican con un número de 0 a 5; 0 es la identidad.
+ */
+public final class SuitCanonicalizer {
+
+    public static final int IDENTIDAD = 0;
+    public static final int PERMUTACIONES = 6;
+
+    private static final long BLOQUE = 0x3FFL;
+
+    // DESTINO[p][s - 1]: palo al que la permutación p lleva al palo s (1 a 3)
+    private static final int[][] DESTINO = {
+        {1, 2, 3}, {1, 3, 2}, {2, 1, 3}, {2, 3, 1}, {3, 1, 2}, {3, 2, 1}
+    };
+    private static final int[] INVERSA = new int[PERMUTACIONES];
+
+    static {
+        for (int p = 0; p < PERMUTACIONES; p++) {
+            // La inversa lleva de vuelta cada destino a su palo de origen
+            INVERSA[p] = buscar(DESTINO[p][0], DESTINO[p][1], DESTINO[p][2]);
+        }
+    }
+
+    private SuitCanonicalizer() {
+    }
+
+    /**
+     * Aplica una permutación de palos a una máscara de cartas.
+     */
+    public static long apply(long mask, int perm) {
+        int[] d = DESTINO[perm];
+        return (mask & CardMask.OROS)
+                | ((mask >>> 10) & BLOQUE) << (10 * d[0])
+                | ((mask >>> 20) & BLOQUE) << (10 * d[1])
+                | ((mask >>> 30) & BLOQUE) << (10 * d[2]);
+    }
+
+    /**
+     * Aplica una permutación de palos al índice de una carta.
+     */
+    public static int applyToCard(int index, int perm) {
+        int suit = index / 10;
+        return suit == 0 ? index : DESTINO[perm][suit - 1] * 10 + index % 10;
+    }
+
+    /**
+     * Permutación que deshace a la dada.
+     */
+    public static int inverse(int perm) {
+        return INVERSA[perm];
+    }
+
+    /**
+     * Permutación que lleva la posición a su forma canónica.
+     *
+     * Se ordenan Copa, Espada y Basto por el contenido de su bloque en cada
+     * máscara, en el orden dado; el palo menor queda como Copa y el mayor como
+     * Basto. Si dos palos empatan en todas las máscaras da igual cuál va primero.
+     *
+     * @param masks Máscaras de la posición (mano, mesa, capturas...), siempre en el mismo orden
+     * @param n Cantidad de máscaras a considerar
+     */
+    public static int canonicalPermutation(long[] masks, int n) {
+        int a = 1;
+        int b = 2;
+        int c = 3;
+        if (compare(masks, n, a, b) > 0) {
+            int t = a; a = b; b = t;
+        }
+        if (compare(masks, n, b, c) > 0) {
+            int t = b; b = c; c = t;
+        }
+        if (compare(masks, n, a, b) > 0) {
+            int t = a; a = b; b = t;
+        }
+        // a va a Copa, b a Espada, c a Basto
+        return buscar(a, b, c);
+    }
+
+    /**
+     * Lleva las máscaras a su forma canónica, en el lugar.
+     *
+     * @return Permutación aplicada; inverse() de ella devuelve la posición original
+     */
+    public static int canonicalize(long[] masks, int n) {
+        int perm = canonicalPermutation(masks, n);
+        if (perm != IDENTIDAD) {
+            for (int i = 0; i < n; i++) {
+                masks[i] = apply(masks[i], perm);
+            }
+        }
+        return perm;
+    }
+
+    private static int compare(long[] masks, int n, int s1, int s2) {
+        for (int i = 0; i < n; i++) {
+            long x = (masks[i] >>> (10 * s1)) & BLOQUE;
+            long y = (masks[i] >>> (10 * s2)) & BLOQUE;
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Busca la permutación que lleva los palos x, y, z a Copa, Espada y Basto.
+     */
+    private static int buscar(int x, int y, int z) {
+        for (int p = 0; p < PERMUTACIONES; p++) {
+            int[] d = DESTINO[p];
+            if (d[x - 1] == 1 && d[y - 1] == 2 && d[z - 1] == 3) {
+                return p;
+            }
+        }
+        throw new IllegalStateException("Permutación inexistente");
+    }
+}
@@ -0,0 +1,228 @@
+package escoba.net;
+
+import escoba.game.GameState;
+import escoba.model.Card;
+import escoba.model.Player;
+
+import java.util.List;
+
+/**
+ * Imagen compacta del tablero vista desde un jugador (o un espectador).
+ *
+ * Guarda solo primitivos: las cartas de la mesa y de la mano propia como
+ * índices (0-39) en el orden en que se muestran, y las cartas capturadas
+ * como máscaras de bits. La mano del oponente nunca se incluye, solo su tamaño.
+ * Es la unidad que WireProtocol codifica y decodifica sin crear objetos.
+ */
+public final class BoardImage {
+
+    /** Perspectiva de un espectador: no ve ninguna mano. */
+    public static final int ESPECTADOR = 0;
+
+    /** Máximo de jugadores representables. */
+    public static final int MAX_JUGADORES = GameState.MAX_JUGADORES;
+
+    private long version;
+    private int perspective;
+    private int numPlayers;
+    private int currentPlayer;
+    private int deckSize;
+    private boolean gameOver;
+
+    private final byte[] table = new byte[Card.TOTAL_CARTAS];
+    private int tableSize;
+    private long tableMask;
+
+    private final byte[] hand = new byte[Card.TOTAL_CARTAS];
+    private int handSize;
+    private long handMask;
+
+    private final int[] handSizes = new int[MAX_JUGADORES];
+    private final long[] captured = new long[MAX_JUGADORES];
+    private final int[] escobas = new int[MAX_JUGADORES];
+
+    /**
+     * Copia el estado visible del juego para el jugador indicado.
+     *
+     * @param state Estado del juego
+     * @param perspective Número de jugador (1 .. N), o ESPECTADOR
+     */
+    public void capture(GameState state, int perspective) {
+        this.version = state.getVersion();
+        this.perspective = perspective;
+        this.currentPlayer = state.getCurrentPlayerNumber();
+        this.deckSize = state.getDeckSize();
+        this.gameOver = state.isGameOver();
+
+        List<Card> cards = state.getTable();
+        tableSize = 0;
+        tableMask = 0L;
+        for (int i = 0; i < cards.size(); i++) {
+            addTableCard(cards.get(i).getIndex());
+        }
+
+        handSize = 0;
+        handMask = 0L;
+        numPlayers = state.getNumPlayers();
+        for (int p = 1; p <= numPlayers; p++) {
+            Player player = state.getPlayer(p);
+            handSizes[p - 1] = player.getHandSize();
+            captured[p - 1] = player.getCapturedMask();
+            escobas[p - 1] = player.getEscobasCount();
+            if (p == perspective) {
+                List<Card> own = player.getHand();
+                for (int i = 0; i < own.size(); i++) {
+                    addHandCard(own.get(i).getIndex());
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia otra imagen sobre esta sin crear objetos.
+     */
+    public void copyFrom(BoardImage other) {
+        version = other.version;
+        perspective = other.perspective;
+        currentPlayer = other.currentPlayer;
+        deckSize = other.deckSize;
+        gameOver = other.gameOver;
+        System.arraycopy(other.table, 0, table, 0, other.tableSize);
+        tableSize = other.tableSize;
+        tableMask = other.tableMask;
+        System.arraycopy(other.hand, 0, hand, 0, other.handSize);
+        handSize = other.handSize;
+        handMask = other.handMask;
+        numPlayers = other.numPlayers;
+        System.arraycopy(other.handSizes, 0, handSizes, 0, numPlayers);
+        System.arraycopy(other.captured, 0, captured, 0, numPlayers);
+        System.arraycopy(other.escobas, 0, escobas, 0, numPlayers);
+    }
+
+    /** Versión del GameState de la que se tomó esta imagen. */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getPerspective() {
+        return perspective;
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /** Índice de la carta en la posición dada de la mesa. */
+    public int getTableCard(int slot) {
+        return table[slot];
+    }
+
+    public long getTableMask() {
+        return tableMask;
+    }
+
+    public int getHandSize() {
+        return handSize;
+    }
+
+    /** Índice de la carta en la posición dada de la mano propia. */
+    public int getHandCard(int slot) {
+        return hand[slot];
+    }
+
+    public long getHandMask() {
+        return handMask;
+    }
+
+    public int getHandSize(int playerNumber) {
+        return handSizes[playerNumber - 1];
+    }
+
+    public long getCapturedMask(int playerNumber) {
+        return captured[playerNumber - 1];
+    }
+
+    public int getEscobas(int playerNumber) {
+        return escobas[playerNumber - 1];
+    }
+
+    // Mutadores usados por WireProtocol al decodificar
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    void setHeader(int perspective, int currentPlayer, int deckSize, boolean gameOver) {
+        this.perspective = perspective;
+        this.currentPlayer = currentPlayer;
+        this.deckSize = deckSize;
+        this.gameOver = gameOver;
+    }
+
+    void setNumPlayers(int numPlayers) {
+        this.numPlayers = numPlayers;
+    }
+
+    void setPlayer(int playerNumber, int handSize, long capturedMask, int escobasCount) {
+        handSizes[playerNumber - 1] = handSize;
+        captured[playerNumber - 1] = capturedMask;
+        escobas[playerNumber - 1] = escobasCount;
+    }
+
+    void clearTable() {
+        tableSize = 0;
+        tableMask = 0L;
+    }
+
+    void addTableCard(int index) {
+        table[tableSize++] = (byte) index;
+        tableMask |= 1L << index;
+    }
+
+    void removeTableCards(long mask) {
+        tableSize = removeAll(table, tableSize, mask);
+        tableMask &= ~mask;
+    }
+
+    void clearHand() {
+        handSize = 0;
+        handMask = 0L;
+    }
+
+    void addHandCard(int index) {
+        hand[handSize++] = (byte) index;
+        handMask |= 1L << index;
+    }
+
+    void removeHandCards(long mask) {
+        handSize = removeAll(hand, handSize, mask);
+        handMask &= ~mask;
+    }
+
+    // Quita las cartas de la máscara conservando el orden del resto
+    private static int removeAll(byte[] cards, int size, long mask) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((mask & (1L << cards[i])) == 0) {
+                cards[kept++] = cards[i];
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,65 @@
+package escoba.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lado cliente de la sincronización por deltas: una copia local del tablero.
+ *
+ * Aplica los frames SNAPSHOT y DELTA recibidos y devuelve qué partes cambiaron,
+ * para que la vista redibuje solo eso. Si un DELTA no parte de la versión que
+ * tiene el espejo, se descarta y el cliente debe pedir un SNAPSHOT (RESYNC).
+ */
+public final class BoardMirror {
+
+    /** Resultado de apply() cuando falta un delta y hay que pedir RESYNC. */
+    public static final int NECESITA_RESYNC = -1;
+
+    private final BoardImage image = new BoardImage();
+    private boolean synced;
+
+    /**
+     * Aplica un frame completo de estado.
+     *
+     * @param buf Buffer posicionado al inicio de un frame completo
+     * @return Partes cambiadas (WireProtocol.PART_*), 0 si el frame no es de estado,
+     *         o NECESITA_RESYNC
+     */
+    public int apply(ByteBuffer buf) {
+        int start = buf.position();
+        int type = WireProtocol.beginFrame(buf);
+        switch (type) {
+            case WireProtocol.SNAPSHOT:
+                WireProtocol.decodeSnapshot(buf, image);
+                synced = true;
+                return WireProtocol.PART_ALL;
+
+            case WireProtocol.DELTA:
+                if (!synced || WireProtocol.peekDeltaBase(buf) != image.getVersion()) {
+                    buf.position(start);
+                    WireProtocol.skipFrame(buf);
+                    synced = false;
+                    return NECESITA_RESYNC;
+                }
+                return WireProtocol.applyDelta(buf, image);
+
+            default:
+                buf.position(start);
+                WireProtocol.skipFrame(buf);
+                return 0;
+        }
+    }
+
+    /**
+     * Indica si el espejo tiene un estado válido.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Imagen local del tablero. Solo lectura para el llamador.
+     */
+    public BoardImage getImage() {
+        return image;
+    }
+}
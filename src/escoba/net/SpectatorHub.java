@@ -0,0 +1,230 @@
+package escoba.net;
+
+import escoba.events.GameEvent;
+import escoba.game.GameState;
+import framework.observer.IObservable;
+import framework.observer.IObserver;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Difusión del estado de una partida a cualquier cantidad de espectadores.
+ *
+ * El hub es un único observador del GameState: al terminar cada jugada codifica
+ * el cambio una sola vez (como un frame DELTA de espectador) en un buffer
+ * inmutable y lo deja en un anillo compartido. Cada espectador lee el anillo
+ * con su propio cursor desde su hilo de red, así que la cantidad de espectadores
+ * no agrega trabajo al hilo de la partida.
+ *
+ * Cada cierto número de jugadas, o cuando un espectador lo pide, se publica
+ * también un SNAPSHOT (keyframe). Los espectadores nuevos empiezan por el último
+ * keyframe; los que se atrasan más que el tamaño del anillo se resincronizan
+ * con él o se descartan, según la política elegida.
+ */
+public final class SpectatorHub implements IObserver {
+
+    /** Qué hacer con un espectador que se atrasó más que el anillo. */
+    public enum LagPolicy {
+        RESYNC,
+        DROP
+    }
+
+    /**
+     * Frame compartido por todos los espectadores. Inmutable.
+     */
+    public static final class Frame {
+        private final long seq;
+        private final ByteBuffer data;
+
+        Frame(long seq, ByteBuffer data) {
+            this.seq = seq;
+            this.data = data;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        /**
+         * Vista de solo lectura del frame, con posición propia para quien la pide.
+         */
+        public ByteBuffer data() {
+            return data.duplicate();
+        }
+    }
+
+    private final Frame[] ring;
+    private final int mask;
+    private final int keyframeInterval;
+    private final LagPolicy lagPolicy;
+
+    // Estado del escritor (hilo de la partida)
+    private final StateSync sync = new StateSync(BoardImage.ESPECTADOR);
+    private final BoardImage keyImage = new BoardImage();
+    private final ByteBuffer scratch = ByteBuffer.allocate(WireProtocol.MAX_FRAME_SIZE);
+    private int sinceKeyframe;
+
+    // Publicado para los lectores
+    private volatile long head;
+    private volatile Frame keyframe;
+    private volatile boolean keyframeRequested = true;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    /**
+     * @param capacity Frames que guarda el anillo (se redondea a potencia de 2)
+     * @param keyframeInterval Cada cuántas publicaciones se emite un keyframe
+     * @param lagPolicy Política para espectadores atrasados
+     */
+    public SpectatorHub(int capacity, int keyframeInterval, LagPolicy lagPolicy) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new Frame[size];
+        this.mask = size - 1;
+        this.keyframeInterval = keyframeInterval;
+        this.lagPolicy = lagPolicy;
+    }
+
+    /**
+     * Publica al final de cada jugada (cambio de turno), al iniciar y al terminar.
+     * Los eventos intermedios de una misma jugada se agrupan en un solo frame.
+     */
+    @Override
+    public void update(IObservable observable, Object event) {
+        if (event == GameEvent.TURN_SWITCHED || event == GameEvent.GAME_STARTED
+                || event == GameEvent.GAME_OVER) {
+            publish((GameState) observable);
+        }
+    }
+
+    /**
+     * Codifica el cambio pendiente una sola vez y lo deja disponible para todos.
+     * Debe llamarse desde el hilo dueño del GameState.
+     */
+    public void publish(GameState state) {
+        scratch.clear();
+        if (sync.writeUpdate(state, scratch)) {
+            long seq = head;
+            ring[(int) (seq & mask)] = new Frame(seq, freeze(scratch));
+            head = seq + 1;
+            sinceKeyframe++;
+        }
+
+        if (keyframeRequested || sinceKeyframe >= keyframeInterval) {
+            keyImage.capture(state, BoardImage.ESPECTADOR);
+            scratch.clear();
+            WireProtocol.encodeSnapshot(scratch, keyImage);
+            // El keyframe equivale a todo lo publicado hasta head - 1
+            keyframe = new Frame(head - 1, freeze(scratch));
+            keyframeRequested = false;
+            sinceKeyframe = 0;
+        }
+    }
+
+    private static ByteBuffer freeze(ByteBuffer scratch) {
+        scratch.flip();
+        ByteBuffer copy = ByteBuffer.allocate(scratch.remaining());
+        copy.put(scratch).flip();
+        return copy.asReadOnlyBuffer();
+    }
+
+    /**
+     * Registra un espectador nuevo. Empieza por el último keyframe.
+     */
+    public Subscription subscribe() {
+        subscribers.incrementAndGet();
+        return new Subscription();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    /** Espectadores descartados por atraso. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Resincronizaciones por atraso servidas con un keyframe. */
+    public long getResyncCount() {
+        return resyncs.get();
+    }
+
+    /**
+     * Cursor de un espectador sobre el anillo. Usar desde un solo hilo.
+     */
+    public final class Subscription {
+        private long cursor = -1;   // Próximo frame a leer; -1 = necesita keyframe
+        private boolean closed;
+
+        private Subscription() {
+        }
+
+        /**
+         * Obtiene el próximo frame para enviar al espectador.
+         *
+         * @return El frame, o null si no hay nada nuevo (o el espectador fue descartado)
+         */
+        public ByteBuffer poll() {
+            if (closed) {
+                return null;
+            }
+            if (cursor < 0) {
+                return pollKeyframe();
+            }
+            if (cursor >= head) {
+                return null;
+            }
+            Frame frame = ring[(int) (cursor & mask)];
+            if (frame == null || frame.seq != cursor) {
+                // El escritor ya reutilizó la posición: el espectador quedó atrás
+                return fellBehind();
+            }
+            cursor++;
+            return frame.data();
+        }
+
+        private ByteBuffer pollKeyframe() {
+            Frame key = keyframe;
+            if (key == null || head - (key.seq + 1) > ring.length) {
+                // No hay keyframe o los deltas que lo siguen ya no están en el anillo
+                keyframeRequested = true;
+                return null;
+            }
+            cursor = key.seq + 1;
+            return key.data();
+        }
+
+        private ByteBuffer fellBehind() {
+            if (lagPolicy == LagPolicy.DROP) {
+                dropped.incrementAndGet();
+                close();
+                return null;
+            }
+            resyncs.incrementAndGet();
+            cursor = -1;
+            return pollKeyframe();
+        }
+
+        /**
+         * Cantidad de frames publicados que este espectador aún no leyó.
+         */
+        public long getLag() {
+            return cursor < 0 ? 0 : head - cursor;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public void close() {
+            if (!closed) {
+                closed = true;
+                subscribers.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package escoba.net;
+
+import escoba.game.GameState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lado servidor de la sincronización por deltas para un suscriptor.
+ *
+ * Recuerda la última imagen enviada y, en cada actualización, escribe solo
+ * lo que cambió desde entonces. El primer envío, y cualquier envío después
+ * de requestResync(), es un SNAPSHOT completo.
+ */
+public final class StateSync {
+
+    private final int perspective;
+    private final BoardImage sent = new BoardImage();
+    private final BoardImage current = new BoardImage();
+    private boolean needsSnapshot = true;
+
+    /**
+     * @param perspective Número de jugador que recibe las actualizaciones, o BoardImage.ESPECTADOR
+     */
+    public StateSync(int perspective) {
+        this.perspective = perspective;
+    }
+
+    /**
+     * Escribe la actualización pendiente para el suscriptor, si la hay.
+     *
+     * @param state Estado del juego
+     * @param buf Buffer de salida
+     * @return true si se escribió un frame
+     */
+    public boolean writeUpdate(GameState state, ByteBuffer buf) {
+        if (!needsSnapshot && state.getVersion() == sent.getVersion()) {
+            return false;
+        }
+        current.capture(state, perspective);
+        if (needsSnapshot) {
+            WireProtocol.encodeSnapshot(buf, current);
+            needsSnapshot = false;
+        } else if (!WireProtocol.encodeDelta(buf, sent, current)) {
+            return false;
+        }
+        sent.copyFrom(current);
+        return true;
+    }
+
+    /**
+     * Para vistas locales: toma el estado y devuelve qué partes cambiaron
+     * (WireProtocol.PART_*) desde la llamada anterior, sin escribir frames.
+     * La primera vez, y después de requestResync(), devuelve PART_ALL.
+     */
+    public int refresh(GameState state) {
+        current.capture(state, perspective);
+        int parts = needsSnapshot ? WireProtocol.PART_ALL : WireProtocol.changedParts(sent, current);
+        needsSnapshot = false;
+        sent.copyFrom(current);
+        return parts;
+    }
+
+    /**
+     * Fuerza que la próxima actualización sea un SNAPSHOT completo.
+     * Se llama al recibir un frame RESYNC del cliente.
+     */
+    public void requestResync() {
+        needsSnapshot = true;
+    }
+
+    public int getPerspective() {
+        return perspective;
+    }
+}
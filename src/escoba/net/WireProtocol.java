@@ -0,0 +1,407 @@
+package escoba.net;
+
+import escoba.game.Move;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocolo binario compacto entre cliente y servidor.
+ *
+ * Cada mensaje es un frame con prefijo de longitud:
+ * <pre>
+ *   u16 longitud (bytes que siguen) | u8 tipo | contenido
+ * </pre>
+ * Tipos de frame:
+ * <ul>
+ *   <li>MOVE: u8 carta de la mano | varint máscara de posiciones de la mesa</li>
+ *   <li>SNAPSHOT: imagen completa del tablero (ver encodeSnapshot)</li>
+ *   <li>DELTA: solo las partes de la imagen que cambiaron (ver encodeDelta)</li>
+ *   <li>RESYNC: pedido del cliente de un SNAPSHOT, sin contenido</li>
+ * </ul>
+ * SNAPSHOT y DELTA llevan la versión del GameState; un DELTA además indica
+ * la versión sobre la que se calculó, para detectar cambios perdidos.
+ * Las máscaras se escriben como varint (7 bits por byte), así que una jugada
+ * típica ocupa 5 bytes en total. Los codecs leen y escriben directamente sobre
+ * el ByteBuffer y sobre BoardImage, sin objetos intermedios.
+ */
+public final class WireProtocol {
+
+    public static final int MOVE = 1;
+    public static final int SNAPSHOT = 2;
+    public static final int DELTA = 3;
+    public static final int RESYNC = 4;
+
+    /** Tamaño máximo de un frame, suficiente para un snapshot con todas las cartas. */
+    public static final int MAX_FRAME_SIZE = 256;
+
+    // Partes presentes en un frame DELTA (también devueltas por applyDelta)
+    public static final int PART_HEADER = 1;
+    public static final int PART_TABLE = 2;
+    public static final int PART_HAND = 4;
+    public static final int PART_PLAYERS = 8;
+    public static final int PART_ALL = PART_HEADER | PART_TABLE | PART_HAND | PART_PLAYERS;
+
+    private static final int HEADER_SIZE = 2;
+
+    private WireProtocol() {
+    }
+
+    // ---------------------------------------------------------------
+    // Frames
+    // ---------------------------------------------------------------
+
+    /**
+     * Indica si el buffer contiene un frame completo a partir de su posición.
+     */
+    public static boolean hasFrame(ByteBuffer buf) {
+        if (buf.remaining() < HEADER_SIZE) {
+            return false;
+        }
+        int length = buf.getShort(buf.position()) & 0xFFFF;
+        return buf.remaining() >= HEADER_SIZE + length;
+    }
+
+    /**
+     * Consume el encabezado de un frame completo y devuelve su tipo.
+     * El contenido queda listo para leerse con el decodificador correspondiente.
+     */
+    public static int beginFrame(ByteBuffer buf) {
+        buf.getShort();
+        return buf.get() & 0xFF;
+    }
+
+    /**
+     * Descarta un frame completo sin decodificarlo.
+     */
+    public static void skipFrame(ByteBuffer buf) {
+        int length = buf.getShort() & 0xFFFF;
+        buf.position(buf.position() + length);
+    }
+
+    private static int openFrame(ByteBuffer buf, int type) {
+        int start = buf.position();
+        buf.putShort((short) 0);
+        buf.put((byte) type);
+        return start;
+    }
+
+    private static void closeFrame(ByteBuffer buf, int start) {
+        buf.putShort(start, (short) (buf.position() - start - HEADER_SIZE));
+    }
+
+    // ---------------------------------------------------------------
+    // Jugadas
+    // ---------------------------------------------------------------
+
+    /**
+     * Escribe una jugada.
+     *
+     * @param handSlot Índice de la carta en la mano
+     * @param tableSlots Máscara de posiciones de la mesa (0 = poner la carta)
+     */
+    public static void encodeMove(ByteBuffer buf, int handSlot, long tableSlots) {
+        int start = openFrame(buf, MOVE);
+        buf.put((byte) handSlot);
+        putVarLong(buf, tableSlots);
+        closeFrame(buf, start);
+    }
+
+    /**
+     * Lee el contenido de un frame MOVE.
+     *
+     * @return La jugada codificada con Move
+     */
+    public static long decodeMove(ByteBuffer buf) {
+        int handSlot = buf.get() & 0xFF;
+        long tableSlots = getVarLong(buf);
+        return Move.capturar(handSlot, tableSlots);
+    }
+
+    /**
+     * Escribe un pedido de resincronización (el cliente perdió un delta).
+     */
+    public static void encodeResync(ByteBuffer buf) {
+        closeFrame(buf, openFrame(buf, RESYNC));
+    }
+
+    // ---------------------------------------------------------------
+    // Estado
+    // ---------------------------------------------------------------
+
+    /**
+     * Escribe la imagen completa del tablero.
+     * Mesa y mano propia van como listas ordenadas de índices (un byte por carta)
+     * para que las posiciones coincidan con las del servidor.
+     */
+    public static void encodeSnapshot(ByteBuffer buf, BoardImage image) {
+        int start = openFrame(buf, SNAPSHOT);
+        buf.put((byte) image.getPerspective());
+        putVarLong(buf, image.getVersion());
+        putHeader(buf, image);
+        buf.put((byte) image.getTableSize());
+        for (int i = 0; i < image.getTableSize(); i++) {
+            buf.put((byte) image.getTableCard(i));
+        }
+        buf.put((byte) image.getHandSize());
+        for (int i = 0; i < image.getHandSize(); i++) {
+            buf.put((byte) image.getHandCard(i));
+        }
+        buf.put((byte) image.getNumPlayers());
+        for (int p = 1; p <= image.getNumPlayers(); p++) {
+            buf.put((byte) image.getHandSize(p));
+            putVarLong(buf, image.getCapturedMask(p));
+            buf.put((byte) image.getEscobas(p));
+        }
+        closeFrame(buf, start);
+    }
+
+    /**
+     * Lee el contenido de un frame SNAPSHOT sobre la imagen dada.
+     */
+    public static void decodeSnapshot(ByteBuffer buf, BoardImage image) {
+        int perspective = buf.get() & 0xFF;
+        image.setVersion(getVarLong(buf));
+        readHeader(buf, image, perspective);
+        image.clearTable();
+        int tableSize = buf.get() & 0xFF;
+        for (int i = 0; i < tableSize; i++) {
+            image.addTableCard(buf.get());
+        }
+        image.clearHand();
+        int handSize = buf.get() & 0xFF;
+        for (int i = 0; i < handSize; i++) {
+            image.addHandCard(buf.get());
+        }
+        readPlayers(buf, image, buf.get() & 0xFF, true);
+    }
+
+    /**
+     * Escribe solo lo que cambió entre dos imágenes de la misma perspectiva.
+     *
+     * Para mesa y mano se envía la máscara de cartas que salieron y la lista
+     * ordenada de cartas que entraron; para las capturas, el XOR de las máscaras.
+     * El receptor quita las que salieron y agrega las nuevas al final, así que
+     * el delta solo sirve si las cartas que quedan conservan su orden relativo
+     * y las nuevas van después de ellas. Si la mesa o la mano de cur no cumplen
+     * eso (por ejemplo, porque se reordenaron), se escribe un SNAPSHOT.
+     *
+     * @return false si no hubo cambios (no se escribe nada)
+     */
+    public static boolean encodeDelta(ByteBuffer buf, BoardImage prev, BoardImage cur) {
+        if (!appendsOnly(prev, cur, true) || !appendsOnly(prev, cur, false)) {
+            encodeSnapshot(buf, cur);
+            return true;
+        }
+        int parts = changedParts(prev, cur);
+        if (parts == 0) {
+            return false;
+        }
+
+        int start = openFrame(buf, DELTA);
+        buf.put((byte) parts);
+        putVarLong(buf, prev.getVersion());
+        putVarLong(buf, cur.getVersion());
+        if ((parts & PART_HEADER) != 0) {
+            putHeader(buf, cur);
+        }
+        if ((parts & PART_TABLE) != 0) {
+            putVarLong(buf, prev.getTableMask() & ~cur.getTableMask());
+            int countPos = buf.position();
+            buf.put((byte) 0);
+            int added = 0;
+            for (int i = 0; i < cur.getTableSize(); i++) {
+                int card = cur.getTableCard(i);
+                if ((prev.getTableMask() & (1L << card)) == 0) {
+                    buf.put((byte) card);
+                    added++;
+                }
+            }
+            buf.put(countPos, (byte) added);
+        }
+        if ((parts & PART_HAND) != 0) {
+            putVarLong(buf, prev.getHandMask() & ~cur.getHandMask());
+            int countPos = buf.position();
+            buf.put((byte) 0);
+            int added = 0;
+            for (int i = 0; i < cur.getHandSize(); i++) {
+                int card = cur.getHandCard(i);
+                if ((prev.getHandMask() & (1L << card)) == 0) {
+                    buf.put((byte) card);
+                    added++;
+                }
+            }
+            buf.put(countPos, (byte) added);
+        }
+        if ((parts & PART_PLAYERS) != 0) {
+            buf.put((byte) cur.getNumPlayers());
+            for (int p = 1; p <= cur.getNumPlayers(); p++) {
+                buf.put((byte) cur.getHandSize(p));
+                long prevCaptured = p <= prev.getNumPlayers() ? prev.getCapturedMask(p) : 0L;
+                putVarLong(buf, prevCaptured ^ cur.getCapturedMask(p));
+                buf.put((byte) cur.getEscobas(p));
+            }
+        }
+        closeFrame(buf, start);
+        return true;
+    }
+
+    /**
+     * Partes de la imagen que difieren entre prev y cur (PART_*), 0 si son iguales.
+     * Mesa y mano cuentan como cambiadas también si solo cambió el orden.
+     */
+    public static int changedParts(BoardImage prev, BoardImage cur) {
+        int parts = 0;
+        if (prev.getCurrentPlayer() != cur.getCurrentPlayer() || prev.getDeckSize() != cur.getDeckSize()
+                || prev.isGameOver() != cur.isGameOver()) {
+            parts |= PART_HEADER;
+        }
+        if (prev.getTableMask() != cur.getTableMask() || !appendsOnly(prev, cur, true)) {
+            parts |= PART_TABLE;
+        }
+        if (prev.getHandMask() != cur.getHandMask() || !appendsOnly(prev, cur, false)) {
+            parts |= PART_HAND;
+        }
+        if (prev.getNumPlayers() != cur.getNumPlayers()) {
+            parts |= PART_PLAYERS;
+        }
+        for (int p = 1; p <= cur.getNumPlayers(); p++) {
+            if (prev.getHandSize(p) != cur.getHandSize(p) || prev.getCapturedMask(p) != cur.getCapturedMask(p)
+                    || prev.getEscobas(p) != cur.getEscobas(p)) {
+                parts |= PART_PLAYERS;
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Si la mesa (o la mano) de cur son las cartas de prev que siguen, en el
+     * mismo orden, seguidas de las cartas nuevas: lo que reconstruye applyDelta.
+     */
+    private static boolean appendsOnly(BoardImage prev, BoardImage cur, boolean table) {
+        long prevMask = table ? prev.getTableMask() : prev.getHandMask();
+        int prevSize = table ? prev.getTableSize() : prev.getHandSize();
+        int curSize = table ? cur.getTableSize() : cur.getHandSize();
+        int j = 0;
+        boolean added = false;
+        for (int i = 0; i < curSize; i++) {
+            int card = table ? cur.getTableCard(i) : cur.getHandCard(i);
+            if ((prevMask & (1L << card)) == 0) {
+                added = true;
+                continue;
+            }
+            if (added) {
+                return false;   // una carta que ya estaba quedó después de una nueva
+            }
+            // Avanzar en prev salteando las que salieron hasta encontrar esta carta
+            while (j < prevSize && (table ? prev.getTableCard(j) : prev.getHandCard(j)) != card) {
+                j++;
+            }
+            if (j == prevSize) {
+                return false;   // cambió de lugar respecto de otra que sigue
+            }
+            j++;
+        }
+        return true;
+    }
+
+    /**
+     * Versión base de un frame DELTA, sin consumirlo.
+     * Debe llamarse justo después de beginFrame.
+     */
+    public static long peekDeltaBase(ByteBuffer buf) {
+        int mark = buf.position();
+        buf.get();
+        long base = getVarLong(buf);
+        buf.position(mark);
+        return base;
+    }
+
+    /**
+     * Aplica el contenido de un frame DELTA sobre la imagen dada.
+     * No verifica la versión base; ver BoardMirror.
+     *
+     * @return Máscara con las partes que cambiaron (PART_*)
+     */
+    public static int applyDelta(ByteBuffer buf, BoardImage image) {
+        int parts = buf.get() & 0xFF;
+        getVarLong(buf);
+        image.setVersion(getVarLong(buf));
+        if ((parts & PART_HEADER) != 0) {
+            readHeader(buf, image, image.getPerspective());
+        }
+        if ((parts & PART_TABLE) != 0) {
+            image.removeTableCards(getVarLong(buf));
+            int added = buf.get() & 0xFF;
+            for (int i = 0; i < added; i++) {
+                image.addTableCard(buf.get());
+            }
+        }
+        if ((parts & PART_HAND) != 0) {
+            image.removeHandCards(getVarLong(buf));
+            int added = buf.get() & 0xFF;
+            for (int i = 0; i < added; i++) {
+                image.addHandCard(buf.get());
+            }
+        }
+        if ((parts & PART_PLAYERS) != 0) {
+            readPlayers(buf, image, buf.get() & 0xFF, false);
+        }
+        return parts;
+    }
+
+    private static void putHeader(ByteBuffer buf, BoardImage image) {
+        buf.put((byte) image.getCurrentPlayer());
+        buf.put((byte) image.getDeckSize());
+        buf.put((byte) (image.isGameOver() ? 1 : 0));
+    }
+
+    private static void readHeader(ByteBuffer buf, BoardImage image, int perspective) {
+        int current = buf.get() & 0xFF;
+        int deckSize = buf.get() & 0xFF;
+        boolean gameOver = buf.get() != 0;
+        image.setHeader(perspective, current, deckSize, gameOver);
+    }
+
+    private static void readPlayers(ByteBuffer buf, BoardImage image, int players, boolean absolute) {
+        if (!absolute && players > image.getNumPlayers()) {
+            // Jugadores nuevos en el delta: su máscara previa es vacía
+            for (int p = image.getNumPlayers() + 1; p <= players; p++) {
+                image.setPlayer(p, 0, 0L, 0);
+            }
+        }
+        image.setNumPlayers(players);
+        for (int p = 1; p <= players; p++) {
+            int handSize = buf.get() & 0xFF;
+            long captured = getVarLong(buf);
+            int escobas = buf.get() & 0xFF;
+            if (!absolute) {
+                captured ^= image.getCapturedMask(p);
+            }
+            image.setPlayer(p, handSize, captured, escobas);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Varints (LEB128 sin signo)
+    // ---------------------------------------------------------------
+
+    static void putVarLong(ByteBuffer buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buf) {
+        long value = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,170 @@
+package escoba.server;
+
+import escoba.game.GameState;
+import escoba.metrics.MetricsRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de GameState preasignados para servidores que abren y cierran muchas mesas.
+ *
+ * Una mesa tomada del pool se reinicia en el lugar con GameState.reset(seed):
+ * el mazo, las 40 cartas, los jugadores y sus listas son los mismos de la
+ * partida anterior, así que abrir una mesa no genera basura. Al devolverla se
+ * le quitan todos los observadores, para que no sigan vivas las vistas ni los
+ * controladores de la mesa anterior.
+ *
+ * Las mesas libres están en un arreglo de casillas que se toman y se llenan
+ * con CAS, sin locks ni nodos por elemento, así que tomar y devolver nunca
+ * asignan memoria. Cada hilo empieza a buscar en una casilla al azar para no
+ * competir con los demás por las mismas. Las casillas no tienen orden entre
+ * sí, así que un hilo demorado a mitad de una operación no traba a los otros
+ * (una cola circular sí quedaría detenida en su casilla). Si el pool está
+ * vacío se crea una mesa nueva (fallo); si está lleno la devuelta se descarta.
+ *
+ * Una mesa no debe devolverse dos veces ni usarse después de devolverla.
+ */
+public final class GameStatePool {
+
+    private final int numPlayers;
+    private final boolean teamPlay;
+    private final int mask;
+    private final AtomicReferenceArray<GameState> slots;   // null = casilla vacía
+    private final AtomicInteger free = new AtomicInteger(); // mesas en las casillas
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder discards;
+
+    /**
+     * @param name Nombre del pool en las métricas (escoba_pool_NOMBRE_*)
+     * @param capacity Mesas libres como máximo (se redondea a potencia de 2)
+     * @param preallocate Mesas a crear de entrada
+     * @param numPlayers Jugadores por mesa
+     * @param teamPlay Si las mesas son por parejas
+     */
+    public GameStatePool(String name, int capacity, int preallocate, int numPlayers, boolean teamPlay) {
+        int n = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.numPlayers = numPlayers;
+        this.teamPlay = teamPlay;
+        this.mask = n - 1;
+        this.slots = new AtomicReferenceArray<>(n);
+
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        this.hits = registry.counter("escoba_pool_" + name + "_aciertos_total");
+        this.misses = registry.counter("escoba_pool_" + name + "_fallos_total");
+        this.discards = registry.counter("escoba_pool_" + name + "_descartes_total");
+
+        for (int i = 0; i < Math.min(preallocate, n); i++) {
+            offer(new GameState(numPlayers, teamPlay));
+        }
+    }
+
+    /**
+     * Pool de mesas de 2 jugadores.
+     */
+    public GameStatePool(String name, int capacity, int preallocate) {
+        this(name, capacity, preallocate, 2, false);
+    }
+
+    /**
+     * Toma una mesa libre (o crea una) y empieza en ella una partida con el
+     * reparto de la semilla.
+     */
+    public GameState acquire(long seed) {
+        GameState state = take();
+        state.reset(seed);
+        return state;
+    }
+
+    /**
+     * Toma una mesa libre (o crea una) sin iniciar partida, para cargarle
+     * un snapshot con GameSnapshot.read.
+     */
+    public GameState take() {
+        GameState state = poll();
+        if (state != null) {
+            hits.increment();
+            return state;
+        }
+        misses.increment();
+        return new GameState(numPlayers, teamPlay);
+    }
+
+    /**
+     * Devuelve una mesa al pool, quitándole los observadores.
+     *
+     * @return false si se descartó (pool lleno o mesa de otra configuración)
+     */
+    public boolean release(GameState state) {
+        state.clearObservers();
+        if (state.getNumPlayers() != numPlayers || state.isTeamPlay() != teamPlay || !offer(state)) {
+            discards.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean offer(GameState state) {
+        if (free.get() > mask) {
+            return false;   // lleno
+        }
+        int start = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, state)) {
+                free.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private GameState poll() {
+        if (free.get() <= 0) {
+            return null;    // vacío
+        }
+        int start = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            GameState state = slots.get(index);
+            if (state != null && slots.compareAndSet(index, state, null)) {
+                free.decrementAndGet();
+                return state;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mesas libres en este momento (aproximado si hay hilos tomando o devolviendo).
+     */
+    public int available() {
+        return Math.max(0, free.get());
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getDiscardCount() {
+        return discards.sum();
+    }
+
+    /**
+     * Resumen: mesas libres, aciertos, fallos y descartes.
+     */
+    public String report() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return String.format("Pool de mesas: %d libres, %d aciertos, %d fallos (%.1f%% aciertos), %d descartes",
+                available(), h, m, h + m > 0 ? 100.0 * h / (h + m) : 0.0, discards.sum());
+    }
+}
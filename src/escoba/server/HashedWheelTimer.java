@@ -0,0 +1,251 @@
+package escoba.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Temporizador de rueda con hash para miles de relojes de mesa.
+ *
+ * Un solo hilo avanza la rueda un casillero por tick y dispara los vencimientos
+ * de ese casillero. Armar y cancelar son O(1): armar deja el vencimiento en una
+ * cola sin locks que el hilo de la rueda pasa a su casillero en el tick siguiente;
+ * cancelar marca el vencimiento y el hilo lo desenlaza de su lista doble.
+ * El costo de un tick depende de los vencimientos de su casillero, no de la
+ * cantidad total de mesas.
+ *
+ * Las tareas corren en el hilo de la rueda y deben ser breves (por ejemplo,
+ * encolar un comando en un TableActor).
+ */
+public final class HashedWheelTimer {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final Thread worker;
+    private volatile boolean running;
+    // Destino de las tareas que fallan; null = el manejador del hilo de la rueda
+    private volatile Thread.UncaughtExceptionHandler errorHandler;
+    private long startNanos;
+    private long tick;
+
+    /**
+     * @param tickDuration Duración de un tick
+     * @param unit Unidad de tickDuration
+     * @param wheelSize Casilleros de la rueda (se redondea a potencia de 2)
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, "escoba-wheel-timer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Arranca el hilo de la rueda.
+     */
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            startNanos = System.nanoTime();
+            worker.start();
+        }
+    }
+
+    /**
+     * Detiene el hilo de la rueda. Los vencimientos pendientes no se disparan.
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Destino de las excepciones de las tareas. La rueda sigue andando
+     * después de un error. Por defecto van al UncaughtExceptionHandler del
+     * hilo de la rueda, que imprime la traza completa.
+     */
+    public void setErrorHandler(Thread.UncaughtExceptionHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    private void reportError(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = errorHandler;
+        if (handler == null) {
+            handler = thread.getUncaughtExceptionHandler();
+        }
+        handler.uncaughtException(thread, e);
+    }
+
+    /**
+     * Programa una tarea. Se puede llamar desde cualquier hilo.
+     *
+     * @param task Tarea a ejecutar al vencer
+     * @param delay Demora
+     * @param unit Unidad de la demora
+     * @return El vencimiento, para poder cancelarlo
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep = deadline - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire(tick);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        // Limita el trabajo por tick para no atrasar la rueda en ráfagas
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.ARMED) {
+                continue;
+            }
+            long target = Math.max(tick, (timeout.deadlineNanos - startNanos) / tickNanos);
+            timeout.targetTick = target;
+            wheel[(int) (target & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Vencimiento programado en la rueda.
+     */
+    public static final class Timeout {
+        static final int ARMED = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(ARMED);
+
+        // Solo los toca el hilo de la rueda
+        private long targetTick;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadlineNanos) {
+            this.timer = timer;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancela el vencimiento si todavía no se disparó. O(1).
+         *
+         * @return true si se canceló
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ARMED, CANCELLED)) {
+                return false;
+            }
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    /**
+     * Lista doblemente enlazada de vencimientos de un casillero.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        void expire(long tick) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.targetTick <= tick) {
+                    remove(timeout);
+                    if (timeout.state.compareAndSet(Timeout.ARMED, Timeout.EXPIRED)) {
+                        try {
+                            timeout.task.run();
+                        } catch (RuntimeException e) {
+                            timeout.timer.reportError(e);
+                        }
+                    }
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package escoba.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SnapshotStore en memoria: cada mesa inactiva queda reducida a su snapshot compacto.
+ */
+public class InMemorySnapshotStore implements SnapshotStore {
+
+    private final ConcurrentHashMap<Long, byte[]> snapshots = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(long id, byte[] snapshot) {
+        snapshots.put(id, snapshot);
+    }
+
+    @Override
+    public byte[] peek(long id) {
+        return snapshots.get(id);
+    }
+
+    @Override
+    public byte[] take(long id) {
+        return snapshots.remove(id);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+}
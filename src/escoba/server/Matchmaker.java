@@ -0,0 +1,285 @@
+package escoba.server;
+
+import escoba.game.GameState;
+import escoba.metrics.LogHistogram;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Emparejamiento de jugadores por banda de rating.
+ *
+ * Cada banda es una cola sin locks (ConcurrentLinkedQueue), así que las altas
+ * desde muchos hilos de red no compiten por un monitor. El emparejador toma el
+ * jugador más antiguo de cada banda y busca rival primero en su banda y luego
+ * en bandas vecinas; la ventana de búsqueda se ensancha a medida que crece la
+ * espera. Un ticket se reclama con un CAS, así que varios emparejadores pueden
+ * correr a la vez sin emparejar dos veces al mismo jugador.
+ *
+ * Cada ticket pasa por ESPERANDO, RESERVADO (un emparejador lo tiene tomado
+ * mientras reserva al otro jugador) y termina en EMPAREJADO o CANCELADO. Una
+ * reserva que no prospera vuelve a ESPERANDO; cancel() espera a que la reserva
+ * se resuelva, así que nunca informa como definitivo un estado que se deshace.
+ *
+ * Por cada pareja se crea un GameState con startNewGame() y se entrega al
+ * TableSpawner (por ejemplo, para registrarlo en el TableRegistry).
+ */
+public final class Matchmaker {
+
+    /**
+     * Recibe cada partida nueva junto con sus dos jugadores.
+     */
+    public interface TableSpawner {
+        void spawn(GameState state, Ticket player1, Ticket player2);
+    }
+
+    /**
+     * Pedido de partida de un jugador.
+     */
+    // Estados de un ticket
+    private static final int ESPERANDO = 0;
+    private static final int RESERVADO = 1;
+    private static final int EMPAREJADO = 2;
+    private static final int CANCELADO = 3;
+
+    public static final class Ticket {
+        private final long playerId;
+        private final int rating;
+        private final long enqueuedNanos;
+        private final AtomicInteger state = new AtomicInteger(ESPERANDO);
+
+        private Ticket(long playerId, int rating) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.enqueuedNanos = System.nanoTime();
+        }
+
+        public long getPlayerId() {
+            return playerId;
+        }
+
+        public int getRating() {
+            return rating;
+        }
+
+        /**
+         * Si el ticket ya no espera rival (emparejado, cancelado o reservado en este momento).
+         */
+        public boolean isClaimed() {
+            return state.get() != ESPERANDO;
+        }
+
+        public boolean isMatched() {
+            return state.get() == EMPAREJADO;
+        }
+    }
+
+    private final int bandWidth;
+    private final long widenEveryNanos;
+    private final int maxWiden;
+    private final TableSpawner spawner;
+    private final AtomicReferenceArray<ConcurrentLinkedQueue<Ticket>> bands;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LogHistogram waitTimes = new LogHistogram("espera_emparejamiento");
+    private final long startNanos = System.nanoTime();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param maxRating Rating máximo esperado (los mayores van a la última banda)
+     * @param bandWidth Ancho de cada banda de rating
+     * @param widenEvery Cada cuánto de espera se suma una banda vecina a la búsqueda
+     * @param maxWiden Máximo de bandas vecinas a cada lado
+     * @param unit Unidad de widenEvery
+     * @param spawner Destino de las partidas creadas
+     */
+    public Matchmaker(int maxRating, int bandWidth, long widenEvery, int maxWiden,
+                      TimeUnit unit, TableSpawner spawner) {
+        this.bandWidth = bandWidth;
+        this.widenEveryNanos = unit.toNanos(widenEvery);
+        this.maxWiden = maxWiden;
+        this.spawner = spawner;
+        int count = maxRating / bandWidth + 1;
+        this.bands = new AtomicReferenceArray<>(count);
+        for (int i = 0; i < count; i++) {
+            bands.set(i, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Pone a un jugador en espera. Se puede llamar desde cualquier hilo.
+     */
+    public Ticket enqueue(long playerId, int rating) {
+        Ticket ticket = new Ticket(playerId, rating);
+        bands.get(bandOf(rating)).add(ticket);
+        enqueued.increment();
+        return ticket;
+    }
+
+    /**
+     * Saca a un jugador de la espera.
+     *
+     * @return false si ya había sido emparejado
+     */
+    public boolean cancel(Ticket ticket) {
+        while (true) {
+            int state = ticket.state.get();
+            if (state == ESPERANDO) {
+                if (ticket.state.compareAndSet(ESPERANDO, CANCELADO)) {
+                    // Queda en la cola marcado; el emparejador lo descarta al pasar
+                    cancelled.increment();
+                    return true;
+                }
+            } else if (state == RESERVADO) {
+                // Un emparejador lo tiene tomado: termina en EMPAREJADO o vuelve a ESPERANDO
+                Thread.onSpinWait();
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private int bandOf(int rating) {
+        return Math.max(0, Math.min(bands.length() - 1, rating / bandWidth));
+    }
+
+    // Resultados de buscar rival para el más antiguo de una banda
+    private static final int NONE = 0;          // no hay rival a su alcance
+    private static final int PAIRED = 1;        // se creó la partida
+    private static final int OLDEST_GONE = 2;   // otro emparejador se lo llevó o canceló
+
+    /**
+     * Recorre todas las bandas una vez y forma todas las parejas posibles.
+     *
+     * @return Cantidad de partidas creadas
+     */
+    public int matchOnce() {
+        int created = 0;
+        long now = System.nanoTime();
+        for (int band = 0; band < bands.length(); band++) {
+            ConcurrentLinkedQueue<Ticket> queue = bands.get(band);
+            Ticket oldest;
+            while ((oldest = firstUnclaimed(queue)) != null) {
+                int widen = widenEveryNanos <= 0 ? maxWiden
+                        : (int) Math.min(maxWiden, (now - oldest.enqueuedNanos) / widenEveryNanos);
+                int result = tryPair(oldest, band, widen, now);
+                if (result == NONE) {
+                    break;
+                }
+                if (result == PAIRED) {
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    private int tryPair(Ticket oldest, int band, int widen, long now) {
+        for (int d = 0; d <= widen; d++) {
+            int result = tryPairIn(oldest, band + d, now);
+            if (result == NONE && d > 0) {
+                result = tryPairIn(oldest, band - d, now);
+            }
+            if (result != NONE) {
+                return result;
+            }
+        }
+        return NONE;
+    }
+
+    private int tryPairIn(Ticket oldest, int band, long now) {
+        if (band < 0 || band >= bands.length()) {
+            return NONE;
+        }
+        for (Ticket candidate : bands.get(band)) {
+            if (candidate == oldest || candidate.state.get() != ESPERANDO) {
+                continue;
+            }
+            // Primero se reserva al rival: si falla se sigue buscando sin haber tocado al más antiguo
+            if (!candidate.state.compareAndSet(ESPERANDO, RESERVADO)) {
+                continue;
+            }
+            if (!oldest.state.compareAndSet(ESPERANDO, EMPAREJADO)) {
+                // Otro emparejador se lo llevó (o el jugador canceló); el rival vuelve a esperar
+                candidate.state.set(ESPERANDO);
+                return OLDEST_GONE;
+            }
+            candidate.state.set(EMPAREJADO);
+            waitTimes.record(now - oldest.enqueuedNanos);
+            waitTimes.record(now - candidate.enqueuedNanos);
+            matched.increment();
+
+            GameState state = new GameState();
+            state.startNewGame();
+            spawner.spawn(state, oldest, candidate);
+            return PAIRED;
+        }
+        return NONE;
+    }
+
+    // Descarta de la cabeza los tickets emparejados o cancelados; los reservados
+    // se saltean sin sacarlos, porque la reserva puede deshacerse
+    private static Ticket firstUnclaimed(ConcurrentLinkedQueue<Ticket> queue) {
+        Iterator<Ticket> it = queue.iterator();
+        while (it.hasNext()) {
+            Ticket ticket = it.next();
+            int state = ticket.state.get();
+            if (state == ESPERANDO) {
+                return ticket;
+            }
+            if (state != RESERVADO) {
+                queue.remove(ticket);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Corre matchOnce() periódicamente en un hilo propio.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "escoba-matchmaker");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::matchOnce, period, period, unit);
+        }
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public long getMatchedCount() {
+        return matched.sum();
+    }
+
+    public LogHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Resumen de actividad: altas, partidas por segundo y tiempos de espera.
+     */
+    public String report() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long pairs = matched.sum();
+        return String.format("Emparejamiento: %d en cola, %d partidas (%.1f/s), %d cancelados%n  %s",
+                enqueued.sum(), pairs, seconds > 0 ? pairs / seconds : 0.0, cancelled.sum(),
+                waitTimes.summary(TimeUnit.MILLISECONDS));
+    }
+}
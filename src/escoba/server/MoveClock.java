@@ -0,0 +1,148 @@
+package escoba.server;
+
+import escoba.controller.GameController;
+import escoba.events.GameEvent;
+import escoba.game.GameState;
+import framework.observer.IObservable;
+import framework.observer.IObserver;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloj de jugadas de una mesa: tiempo por turno y tiempo total por partida.
+ *
+ * Observa el GameState desde el hilo del actor. En cada cambio de turno descuenta
+ * lo usado por el jugador anterior y arma un vencimiento en la rueda compartida
+ * para el jugador actual, por el menor entre el tiempo por turno y lo que le
+ * queda de partida. Si vence, el actor juega por él la primera carta de su mano.
+ */
+public final class MoveClock implements IObserver {
+
+    private final HashedWheelTimer timer;
+    private final TableActor actor;
+    private final long perTurnNanos;
+    private final long perGameNanos;
+
+    // Solo se usan desde el hilo del actor
+    private final long[] remainingNanos = new long[GameState.MAX_JUGADORES];
+    private long turnStartNanos;
+    private int turnPlayer;
+    private long turnToken;
+    private HashedWheelTimer.Timeout armed;
+    private long timeouts;
+
+    /**
+     * @param timer Rueda compartida por todas las mesas
+     * @param actor Actor dueño de la mesa
+     * @param perTurn Tiempo máximo por turno (0 = sin límite)
+     * @param perGame Tiempo total de cada jugador en la partida (0 = sin límite)
+     * @param unit Unidad de perTurn y perGame
+     */
+    public MoveClock(HashedWheelTimer timer, TableActor actor, long perTurn, long perGame, TimeUnit unit) {
+        this.timer = timer;
+        this.actor = actor;
+        this.perTurnNanos = unit.toNanos(perTurn);
+        this.perGameNanos = unit.toNanos(perGame);
+    }
+
+    /**
+     * Crea un reloj y lo conecta al GameState de la mesa desde el hilo del actor.
+     */
+    public static MoveClock install(HashedWheelTimer timer, TableActor actor,
+                                    long perTurn, long perGame, TimeUnit unit) {
+        MoveClock clock = new MoveClock(timer, actor, perTurn, perGame, unit);
+        actor.tell((state, controller) -> {
+            state.addObserver(clock);
+            if (!state.isGameOver()) {
+                clock.resetGame();
+                clock.startTurn(state.getCurrentPlayerNumber());
+            }
+        });
+        return clock;
+    }
+
+    @Override
+    public void update(IObservable observable, Object event) {
+        GameState state = (GameState) observable;
+        if (event == GameEvent.GAME_STARTED) {
+            resetGame();
+            startTurn(state.getCurrentPlayerNumber());
+        } else if (event == GameEvent.TURN_SWITCHED) {
+            endTurn();
+            startTurn(state.getCurrentPlayerNumber());
+        } else if (event == GameEvent.GAME_OVER) {
+            endTurn();
+        }
+    }
+
+    private void resetGame() {
+        cancelArmed();
+        Arrays.fill(remainingNanos, perGameNanos);
+        turnPlayer = 0;
+    }
+
+    private void startTurn(int playerNumber) {
+        cancelArmed();
+        turnPlayer = playerNumber;
+        turnStartNanos = System.nanoTime();
+        long token = ++turnToken;
+
+        long budget = perTurnNanos;
+        if (perGameNanos > 0) {
+            long left = Math.max(0, remainingNanos[playerNumber - 1]);
+            budget = budget > 0 ? Math.min(budget, left) : left;
+        }
+        if (perTurnNanos > 0 || perGameNanos > 0) {
+            armed = timer.schedule(() -> actor.tell((s, c) -> onTimeout(s, c, token)),
+                    budget, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void endTurn() {
+        cancelArmed();
+        if (turnPlayer != 0 && perGameNanos > 0) {
+            remainingNanos[turnPlayer - 1] -= System.nanoTime() - turnStartNanos;
+        }
+        turnPlayer = 0;
+    }
+
+    private void cancelArmed() {
+        if (armed != null) {
+            armed.cancel();
+            armed = null;
+        }
+    }
+
+    // Corre en el hilo del actor; el token descarta vencimientos de turnos ya jugados
+    private void onTimeout(GameState state, GameController controller, long token) {
+        if (token != turnToken || state.isGameOver() || turnPlayer == 0) {
+            return;
+        }
+        timeouts++;
+        if (controller != null) {
+            controller.procesarInputJugador(turnPlayer, "jugar 1");
+        } else {
+            state.jugarCarta(0);
+        }
+    }
+
+    /**
+     * Tiempo de partida que le queda al jugador, en nanosegundos.
+     * Debe consultarse desde el hilo del actor.
+     */
+    public long getRemainingNanos(int playerNumber) {
+        long left = remainingNanos[playerNumber - 1];
+        if (playerNumber == turnPlayer) {
+            left -= System.nanoTime() - turnStartNanos;
+        }
+        return left;
+    }
+
+    /**
+     * Cantidad de jugadas automáticas por tiempo agotado.
+     */
+    public long getTimeoutCount() {
+        return timeouts;
+    }
+}
@@ -0,0 +1,27 @@
+package escoba.server;
+
+/**
+ * Almacén de snapshots de mesas desalojadas por inactividad.
+ * Ver GameSnapshot para el formato.
+ */
+public interface SnapshotStore {
+
+    /**
+     * Guarda el snapshot de una mesa, reemplazando uno anterior.
+     */
+    void save(long id, byte[] snapshot);
+
+    /**
+     * Devuelve el snapshot de una mesa sin quitarlo del almacén.
+     *
+     * @return El snapshot, o null si no hay ninguno guardado
+     */
+    byte[] peek(long id);
+
+    /**
+     * Quita y devuelve el snapshot de una mesa.
+     *
+     * @return El snapshot, o null si no hay ninguno guardado
+     */
+    byte[] take(long id);
+}
@@ -0,0 +1,239 @@
+package escoba.server;
+
+import escoba.controller.GameController;
+import escoba.game.GameState;
+import escoba.game.StrategyRunner;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Dueño único de una mesa: su GameState y su GameController.
+ *
+ * Los hilos de red no tocan el estado; dejan comandos en un buzón MPSC sin
+ * locks y el actor se agenda en el executor compartido. Solo un turno del
+ * executor a la vez vacía el buzón, así que el GameState se usa siempre desde
+ * un único hilo lógico, sin locks en el camino de la jugada. Muchas mesas
+ * comparten pocos hilos: una mesa sin comandos no ocupa ninguno.
+ */
+public final class TableActor {
+
+    /**
+     * Comando a ejecutar sobre la mesa, siempre desde el turno del actor.
+     */
+    public interface Command {
+        void execute(GameState state, GameController controller);
+    }
+
+    // Máximo de comandos por turno, para no acaparar un hilo del pool
+    private static final int BATCH = 64;
+
+    // Hilos para bots: de sobra, para que una estrategia trabada no deje sin lugar al resto
+    private static final int HILOS_BOTS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    // Plazo duro por decisión de bot en las mesas del servidor
+    private static final StrategyRunner BOTS = new StrategyRunner(250, TimeUnit.MILLISECONDS, HILOS_BOTS);
+
+    // Hilos donde esperan las decisiones de los bots de todas las mesas,
+    // para que el pool de mesas nunca quede esperando a un bot
+    private static final Executor DECISIONES = Executors.newFixedThreadPool(HILOS_BOTS, r -> {
+        Thread t = new Thread(r, "escoba-mesa-bot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long id;
+    private final GameState state;
+    private final GameController controller;
+    private final Executor executor;
+
+    // Buzón MPSC intrusivo (Vyukov): los productores encadenan en 'tail',
+    // el único consumidor avanza desde 'head'
+    private final AtomicReference<Node> tail;
+    private Node head;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+
+    private volatile long lastActivityNanos = System.nanoTime();
+
+    // Una vez retirada la mesa, los comandos que sigan llegando se reenvían aquí
+    private volatile Consumer<Command> forwardTo;
+
+    // Qué hacer cuando un jugador escribe "salir"; nunca System.exit
+    private volatile Runnable exitHandler = () -> { };
+
+    // Destino de los comandos que fallan; null = el manejador del hilo del pool
+    private volatile Thread.UncaughtExceptionHandler errorHandler;
+
+    /**
+     * El controlador pierde su acción de salida: "salir" de un jugador remoto
+     * no debe terminar la JVM del servidor con todas sus mesas. En su lugar
+     * corre el manejador de setExitHandler, que por defecto no hace nada.
+     *
+     * Los bots de la mesa deciden fuera del pool de mesas, en hilos propios
+     * compartidos por todas las mesas, con un plazo duro de 250 ms por
+     * decisión; la jugada vuelve a la mesa como un comando más. Para otro
+     * plazo, llamar a controller.setStrategyRunner después de crear el actor.
+     *
+     * @param id Identificador de la mesa
+     * @param state Estado de la partida (pasa a ser propiedad del actor)
+     * @param controller Controlador de la mesa, o null si solo se usan comandos sobre el estado
+     * @param executor Pool compartido por todas las mesas
+     */
+    public TableActor(long id, GameState state, GameController controller, Executor executor) {
+        this.id = id;
+        this.state = state;
+        this.controller = controller;
+        this.executor = executor;
+        if (controller != null) {
+            controller.setExitAction(() -> exitHandler.run());
+            controller.setStrategyRunner(BOTS);
+            controller.setBotExecutor(DECISIONES, r -> tell((s, c) -> r.run()));
+        }
+        Node stub = new Node(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Encola un comando. Se puede llamar desde cualquier hilo.
+     */
+    public void tell(Command command) {
+        lastActivityNanos = System.nanoTime();
+        enqueue(command);
+    }
+
+    /**
+     * Encola un comando interno (por ejemplo, de desalojo) sin contarlo como actividad.
+     */
+    void tellSystem(Command command) {
+        enqueue(command);
+    }
+
+    private void enqueue(Command command) {
+        Node node = new Node(command);
+        Node prev = tail.getAndSet(node);
+        prev.next = node;
+        schedule();
+    }
+
+    /**
+     * Retira la mesa: los comandos pendientes y futuros se reenvían al destino dado
+     * en lugar de ejecutarse. Debe llamarse desde un comando de este mismo actor.
+     */
+    void retire(Consumer<Command> forwardTo) {
+        this.forwardTo = forwardTo;
+    }
+
+    public boolean isRetired() {
+        return forwardTo != null;
+    }
+
+    /**
+     * Acción a correr, en el turno del actor, cuando un jugador escribe "salir"
+     * (por ejemplo, abandonar la mesa o desalojarla del registro).
+     */
+    public void setExitHandler(Runnable exitHandler) {
+        this.exitHandler = exitHandler;
+    }
+
+    /**
+     * Destino de las excepciones de los comandos. La mesa sigue procesando
+     * después de un error; la excepción recibida lleva el id de la mesa y la
+     * original como causa. Por defecto va al UncaughtExceptionHandler del
+     * hilo del pool, que imprime la traza completa.
+     */
+    public void setErrorHandler(Thread.UncaughtExceptionHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Encola una línea de texto de un jugador, como la escribiría en su ventana.
+     * "salir" no termina el proceso: corre el manejador de setExitHandler.
+     */
+    public void tellInput(int numeroJugador, String input) {
+        tell((s, c) -> c.procesarInputJugador(numeroJugador, input));
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Command command = poll();
+                if (command == null) {
+                    break;
+                }
+                Consumer<Command> forward = forwardTo;
+                if (forward != null) {
+                    forward.accept(command);
+                    continue;
+                }
+                try {
+                    command.execute(state, controller);
+                } catch (RuntimeException e) {
+                    // Un comando roto no debe dejar la mesa sin procesar
+                    reportError(e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void reportError(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = errorHandler;
+        if (handler == null) {
+            handler = thread.getUncaughtExceptionHandler();
+        }
+        handler.uncaughtException(thread, new IllegalStateException("Mesa " + id + ": error en comando", e));
+    }
+
+    private Command poll() {
+        Node next = head.next;
+        if (next == null) {
+            return null;
+        }
+        Command command = next.command;
+        next.command = null;
+        head = next;
+        return command;
+    }
+
+    private boolean isEmpty() {
+        return head.next == null && tail.get() == head;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Momento (System.nanoTime) del último comando recibido.
+     */
+    public long getLastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    private static final class Node {
+        private Command command;
+        private volatile Node next;
+
+        Node(Command command) {
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package escoba.server;
+
+import escoba.game.GameSnapshot;
+import escoba.game.GameState;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Registro de mesas vivas por id, repartido en N shards.
+ *
+ * Cada shard es un mapa de direccionamiento abierto (sondeo lineal) de long a
+ * TableActor, sin boxing de las claves. Las búsquedas usan lectura optimista
+ * (StampedLock), así que en el caso normal no toman ningún lock; las altas y
+ * bajas bloquean solo su shard.
+ *
+ * Las mesas inactivas se desalojan a un SnapshotStore y se rehidratan solas
+ * la próxima vez que alguien las busca o les envía un comando. Con un
+ * GameStatePool, los GameState de las mesas nuevas y rehidratadas salen del
+ * pool y los de las desalojadas vuelven a él.
+ */
+public final class TableRegistry {
+
+    /**
+     * Crea el actor de una mesa (con su controlador y vistas) para un estado dado.
+     */
+    public interface TableFactory {
+        TableActor create(long id, GameState state);
+    }
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final int shardShift;
+    private final TableFactory factory;
+    private final SnapshotStore store;
+    private final GameStatePool pool;   // null = crear cada GameState
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rehydrations = new AtomicLong();
+
+    /**
+     * @param shardCount Cantidad de shards (se redondea a potencia de 2)
+     * @param factory Fábrica de actores de mesa
+     * @param store Almacén de snapshots de mesas desalojadas
+     */
+    public TableRegistry(int shardCount, TableFactory factory, SnapshotStore store) {
+        this(shardCount, factory, store, null);
+    }
+
+    /**
+     * @param shardCount Cantidad de shards (se redondea a potencia de 2)
+     * @param factory Fábrica de actores de mesa
+     * @param store Almacén de snapshots de mesas desalojadas
+     * @param pool Pool de donde salen los GameState de 2 jugadores, o null
+     */
+    public TableRegistry(int shardCount, TableFactory factory, SnapshotStore store, GameStatePool pool) {
+        int n = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+        this.shards = new Shard[n];
+        for (int i = 0; i < n; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = n - 1;
+        // Los bits altos del hash eligen el shard; los bajos, el slot dentro de él
+        this.shardShift = 64 - Integer.numberOfTrailingZeros(n);
+        this.factory = factory;
+        this.store = store;
+        this.pool = pool;
+    }
+
+    /**
+     * Crea una mesa nueva con una partida recién iniciada.
+     *
+     * @throws IllegalStateException si ya existe una mesa con ese id
+     */
+    public TableActor create(long id) {
+        GameState state;
+        if (pool != null) {
+            state = pool.acquire(mix(id) ^ System.nanoTime());
+        } else {
+            state = new GameState();
+            state.startNewGame();
+        }
+        TableActor actor = factory.create(id, state);
+        if (!shardFor(id).putIfAbsent(id, mix(id), actor)) {
+            throw new IllegalStateException("La mesa " + id + " ya existe");
+        }
+        return actor;
+    }
+
+    /**
+     * Busca una mesa viva, rehidratándola si estaba desalojada.
+     *
+     * @return El actor de la mesa, o null si no existe
+     */
+    public TableActor get(long id) {
+        long hash = mix(id);
+        Shard shard = shardFor(id);
+        TableActor actor = shard.get(id, hash);
+        if (actor != null) {
+            return actor;
+        }
+        return shard.rehydrate(id, hash);
+    }
+
+    /**
+     * Envía un comando a una mesa.
+     *
+     * @return false si la mesa no existe
+     */
+    public boolean tell(long id, TableActor.Command command) {
+        TableActor actor = get(id);
+        if (actor == null) {
+            return false;
+        }
+        actor.tell(command);
+        return true;
+    }
+
+    /**
+     * Desaloja las mesas sin actividad en el intervalo dado.
+     * El snapshot se toma desde el propio actor, así que no interfiere con jugadas en curso;
+     * si llega un comando antes del desalojo, la mesa se conserva.
+     *
+     * @param idleNanos Tiempo mínimo de inactividad
+     * @return Cantidad de mesas marcadas para desalojo
+     */
+    public int evictIdle(long idleNanos) {
+        long cutoff = System.nanoTime() - idleNanos;
+        List<TableActor> idle = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.collectIdle(cutoff, idle);
+        }
+        for (TableActor actor : idle) {
+            actor.tellSystem((state, controller) -> evict(actor, state, cutoff));
+        }
+        return idle.size();
+    }
+
+    private void evict(TableActor actor, GameState state, long cutoff) {
+        if (actor.isRetired() || actor.getLastActivityNanos() > cutoff) {
+            return;
+        }
+        long id = actor.getId();
+        store.save(id, GameSnapshot.toBytes(state));
+        // Lo que siga llegando al actor viejo va a la mesa rehidratada
+        actor.retire(command -> tell(id, command));
+        shardFor(id).remove(id, mix(id), actor);
+        evictions.incrementAndGet();
+        if (pool != null) {
+            // El actor ya está retirado: nadie más usa este estado
+            pool.release(state);
+        }
+    }
+
+    /**
+     * Cantidad de mesas vivas (sin contar las desalojadas).
+     */
+    public int size() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.size();
+        }
+        return total;
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getRehydrationCount() {
+        return rehydrations.get();
+    }
+
+    private Shard shardFor(long id) {
+        return shards[(int) (mix(id) >>> shardShift) & shardMask];
+    }
+
+    // Mezcla de bits de MurmurHash3 (fmix64)
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Arreglos de un shard. Se reemplazan juntos al crecer, para que una lectura
+     * optimista nunca combine claves de una tabla con valores de otra.
+     */
+    private static final class Slots {
+        final long[] keys;
+        final TableActor[] values;   // null = posición libre
+
+        Slots(int capacity) {
+            keys = new long[capacity];
+            values = new TableActor[capacity];
+        }
+    }
+
+    private final class Shard {
+        private final StampedLock lock = new StampedLock();
+        private Slots slots = new Slots(16);
+        private int size;
+
+        TableActor get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                TableActor found = find(slots, id, hash);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(slots, id, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private TableActor find(Slots s, long id, long hash) {
+            int mask = s.keys.length - 1;
+            for (int i = (int) hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                TableActor value = s.values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (s.keys[i] == id) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        boolean putIfAbsent(long id, long hash, TableActor actor) {
+            long stamp = lock.writeLock();
+            try {
+                if (find(slots, id, hash) != null) {
+                    return false;
+                }
+                insert(id, hash, actor);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        TableActor rehydrate(long id, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                TableActor existing = find(slots, id, hash);
+                if (existing != null) {
+                    return existing;
+                }
+                // El snapshot sigue en el almacén hasta que la mesa queda insertada:
+                // si algo falla al decodificar o al crear el actor, no se pierde
+                byte[] snapshot = store.peek(id);
+                if (snapshot == null) {
+                    return null;
+                }
+                GameState state = null;
+                TableActor actor;
+                try {
+                    if (pool != null) {
+                        state = pool.take();
+                        GameSnapshot.read(ByteBuffer.wrap(snapshot), state);
+                    } else {
+                        state = GameSnapshot.fromBytes(snapshot);
+                    }
+                    actor = factory.create(id, state);
+                    insert(id, hash, actor);
+                } catch (RuntimeException e) {
+                    if (pool != null && state != null) {
+                        pool.release(state);
+                    }
+                    throw e;
+                }
+                // Con el lock del shard tomado nadie más puede desalojar esta mesa,
+                // así que lo que se quita es el mismo snapshot que se leyó
+                store.take(id);
+                rehydrations.incrementAndGet();
+                return actor;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void insert(long id, long hash, TableActor actor) {
+            if ((size + 1) * 4 > slots.keys.length * 3) {
+                grow();
+            }
+            int mask = slots.keys.length - 1;
+            int i = (int) hash & mask;
+            while (slots.values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            slots.keys[i] = id;
+            slots.values[i] = actor;
+            size++;
+        }
+
+        private void grow() {
+            Slots old = slots;
+            Slots bigger = new Slots(old.keys.length * 2);
+            int mask = bigger.keys.length - 1;
+            for (int j = 0; j < old.keys.length; j++) {
+                if (old.values[j] != null) {
+                    int i = (int) mix(old.keys[j]) & mask;
+                    while (bigger.values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    bigger.keys[i] = old.keys[j];
+                    bigger.values[i] = old.values[j];
+                }
+            }
+            slots = bigger;
+        }
+
+        void remove(long id, long hash, TableActor expected) {
+            long stamp = lock.writeLock();
+            try {
+                Slots s = slots;
+                int mask = s.keys.length - 1;
+                int i = (int) hash & mask;
+                while (s.values[i] != null) {
+                    if (s.keys[i] == id) {
+                        if (s.values[i] != expected) {
+                            return;
+                        }
+                        deleteAt(s, i);
+                        size--;
+                        return;
+                    }
+                    i = (i + 1) & mask;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Borrado con corrimiento hacia atrás: mantiene las cadenas de sondeo sin marcas
+        private void deleteAt(Slots s, int hole) {
+            int mask = s.keys.length - 1;
+            int i = hole;
+            while (true) {
+                i = (i + 1) & mask;
+                if (s.values[i] == null) {
+                    break;
+                }
+                int home = (int) mix(s.keys[i]) & mask;
+                // El elemento puede ocupar el hueco si su posición ideal no está entre hueco e i
+                boolean canMove = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (canMove) {
+                    s.keys[hole] = s.keys[i];
+                    s.values[hole] = s.values[i];
+                    hole = i;
+                }
+            }
+            s.values[hole] = null;
+            s.keys[hole] = 0L;
+        }
+
+        void collectIdle(long cutoff, List<TableActor> out) {
+            long stamp = lock.readLock();
+            try {
+                for (TableActor actor : slots.values) {
+                    if (actor != null && actor.getLastActivityNanos() <= cutoff) {
+                        out.add(actor);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
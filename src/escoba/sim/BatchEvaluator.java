@@ -0,0 +1,438 @@
+package escoba.sim;
+
+import escoba.bots.EscobaSeekingStrategy;
+import escoba.game.GameState;
+import escoba.game.Move;
+import escoba.game.MoveGenerator;
+import escoba.game.PositionView;
+import escoba.game.ScoreCalculator;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
+import escoba.model.Card;
+import escoba.model.CardMask;
+import escoba.model.SuitCanonicalizer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evalúa en lote posiciones leídas de un archivo y escribe los resultados en el mismo orden.
+ *
+ * Cada línea describe una posición de dos jugadores vista por el que juega,
+ * con máscaras de cartas en hexadecimal (ver CardMask):
+ *
+ *   mano mesa capturasPropias capturasRival escobasPropias escobasRival cartasRival
+ *
+ * Las líneas vacías y las que empiezan con '#' se ignoran. Las cartas que no
+ * aparecen son la mano del rival y el mazo; para cada jugada legal se juegan
+ * partidas completas repartiendo esas cartas al azar, con el bot escobero en
+ * ambos asientos, y se promedia la diferencia final de puntos. La salida tiene
+ * una línea por posición, con la mejor jugada primero:
+ *
+ *   número jugada=valor jugada=valor ...
+ *
+ * donde una jugada se escribe con las cartas cortas de Card ("7O" pone el 7 de
+ * Oro, "5C+AE+9B" lleva el As de Espada y el 9 de Basto con el 5 de Copa).
+ *
+ * Es un pipeline acotado: un lector, una cola de trabajos para los hilos
+ * evaluadores y un escritor que espera cada resultado en orden de entrada. La
+ * cola de salida limita cuántas posiciones hay en vuelo, así el lector no se
+ * adelanta más de lo que entra en memoria. Las posiciones se evalúan en forma
+ * canónica de palos y los resultados se comparten entre hilos, así las
+ * posiciones repetidas del lote (o iguales salvo palos) se evalúan una vez.
+ * La caché vive lo que dura un run() y guarda a lo sumo CACHE_MAX posiciones.
+ *
+ * Si falla la lectura, la escritura o un evaluador, el pipeline se cierra
+ * igual: los hilos terminan y run() lanza el primer error.
+ */
+public class BatchEvaluator {
+
+    private static final Job FIN = new Job(0, null, null);
+
+    // Posiciones canónicas guardadas como máximo en la caché de un run()
+    private static final int CACHE_MAX = 1 << 16;
+
+    private final int rollouts;
+    private final int threads;
+    private final int inFlight;
+    private final long seed;
+
+    /**
+     * @param rollouts Partidas por jugada
+     * @param threads Hilos evaluadores
+     * @param inFlight Máximo de posiciones leídas y todavía no escritas
+     * @param seed Semilla de los repartos
+     */
+    public BatchEvaluator(int rollouts, int threads, int inFlight, long seed) {
+        this.rollouts = rollouts;
+        this.threads = threads;
+        this.inFlight = inFlight;
+        this.seed = seed;
+    }
+
+    private static final class Job {
+        final long number;
+        final String line;
+        final CompletableFuture<String> result;
+
+        Job(long number, String line, CompletableFuture<String> result) {
+            this.number = number;
+            this.line = line;
+            this.result = result;
+        }
+    }
+
+    /** Jugadas de una posición canónica con su valor, de mejor a peor. */
+    private static final class Evaluation {
+        final long[] hands;    // carta de la mano de cada jugada
+        final long[] takes;    // cartas de la mesa que lleva
+        final double[] values;
+
+        Evaluation(int count) {
+            hands = new long[count];
+            takes = new long[count];
+            values = new double[count];
+        }
+    }
+
+    /**
+     * Procesa toda la entrada.
+     *
+     * @return Cantidad de posiciones evaluadas
+     */
+    public long run(Reader input, Writer output) throws IOException, InterruptedException {
+        BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(threads * 4);
+        BlockingQueue<CompletableFuture<String>> pending = new ArrayBlockingQueue<>(inFlight);
+        CompletableFuture<String> endOfInput = new CompletableFuture<>();
+        ConcurrentHashMap<String, Evaluation> cache = new ConcurrentHashMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> work(jobs, cache), "evaluador-" + t);
+            workers[t].setDaemon(true);
+            workers[t].start();
+        }
+
+        long[] written = new long[1];
+        Thread writer = new Thread(() -> {
+            try {
+                while (true) {
+                    CompletableFuture<String> next = pending.take();
+                    if (next == endOfInput) {
+                        break;
+                    }
+                    if (failure.get() != null) {
+                        // Después de un error se sigue vaciando la cola para no trabar al lector
+                        continue;
+                    }
+                    try {
+                        output.write(next.join());
+                        output.write('\n');
+                        written[0]++;
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+                if (failure.get() == null) {
+                    output.flush();
+                }
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "escritor");
+        writer.setDaemon(true);
+        writer.start();
+
+        try {
+            BufferedReader reader = new BufferedReader(input);
+            long number = 0;
+            String line;
+            while (failure.get() == null && (line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Job job = new Job(++number, line, new CompletableFuture<>());
+                // Primero el lugar en la salida: si el escritor está atrasado, el lector espera
+                pending.put(job.result);
+                jobs.put(job);
+            }
+        } finally {
+            // Aunque falle la lectura, los hilos tienen que enterarse de que no hay más
+            pending.put(endOfInput);
+            for (int t = 0; t < threads; t++) {
+                jobs.put(FIN);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            writer.join();
+        }
+        rethrow(failure.get());
+        return written[0];
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private void work(BlockingQueue<Job> jobs, ConcurrentHashMap<String, Evaluation> cache) {
+        Evaluator evaluator = new Evaluator(cache);
+        try {
+            while (true) {
+                Job job = jobs.take();
+                if (job == FIN) {
+                    return;
+                }
+                try {
+                    job.result.complete(job.number + " " + evaluator.evaluate(job.line));
+                } catch (RuntimeException e) {
+                    job.result.complete(job.number + " error: " + e.getMessage());
+                } catch (Throwable e) {
+                    // El escritor lo ve al esperar el resultado; la mesa y los arreglos
+                    // pueden haber quedado a medias, así que se sigue con un evaluador nuevo
+                    job.result.completeExceptionally(e);
+                    evaluator = new Evaluator(cache);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Evaluación de posiciones. Reutiliza su mesa y sus arreglos: uno por hilo.
+     */
+    private final class Evaluator {
+        private final ConcurrentHashMap<String, Evaluation> cache;
+        private final GameState state = new GameState();
+        private final MoveGenerator generator = new MoveGenerator();
+        private final PositionView view = new PositionView();
+        private final StrategyRunner runner = new StrategyRunner(0, TimeUnit.MILLISECONDS);
+        private final Strategy bot = new EscobaSeekingStrategy();
+        private final Random random = new Random();
+        private final long[] moves = new long[MoveGenerator.MAX_JUGADAS];
+        private final long[] masks = new long[4];
+        private final byte[] unseen = new byte[Card.TOTAL_CARTAS];
+        private final byte[] unseenOrdered = new byte[Card.TOTAL_CARTAS];   // antes de mezclar
+        private final byte[] deck = new byte[Card.TOTAL_CARTAS];
+        private final long[] hands = new long[2];
+        private final long[] captured = new long[2];
+        private final int[] escobas = new int[2];
+        private final int[] scores = new int[2];
+
+        Evaluator(ConcurrentHashMap<String, Evaluation> cache) {
+            this.cache = cache;
+        }
+
+        String evaluate(String line) {
+            String[] parts = line.split("\\s+");
+            if (parts.length != 7) {
+                throw new IllegalArgumentException("se esperaban 7 campos y hay " + parts.length);
+            }
+            for (int i = 0; i < 4; i++) {
+                masks[i] = Long.parseUnsignedLong(parts[i], 16);
+            }
+            int ownEscobas = Integer.parseInt(parts[4]);
+            int rivalEscobas = Integer.parseInt(parts[5]);
+            int rivalCards = Integer.parseInt(parts[6]);
+            validate(rivalCards);
+
+            int perm = SuitCanonicalizer.canonicalize(masks, 4);
+            String key = Long.toHexString(masks[0]) + ' ' + Long.toHexString(masks[1]) + ' '
+                    + Long.toHexString(masks[2]) + ' ' + Long.toHexString(masks[3]) + ' '
+                    + ownEscobas + ' ' + rivalEscobas + ' ' + rivalCards;
+            Evaluation evaluation = cache.get(key);
+            if (evaluation == null) {
+                evaluation = compute(ownEscobas, rivalEscobas, rivalCards, key.hashCode());
+                if (cache.size() < CACHE_MAX) {
+                    cache.putIfAbsent(key, evaluation);
+                }
+            }
+            return format(evaluation, SuitCanonicalizer.inverse(perm));
+        }
+
+        private void validate(int rivalCards) {
+            long all = 0L;
+            for (int i = 0; i < 4; i++) {
+                if ((masks[i] & ~CardMask.ALL) != 0 || (all & masks[i]) != 0) {
+                    throw new IllegalArgumentException("máscaras inválidas o superpuestas");
+                }
+                all |= masks[i];
+            }
+            int unseenCount = Card.TOTAL_CARTAS - Long.bitCount(all);
+            int ownCards = Long.bitCount(masks[0]);
+            if (ownCards < 1 || ownCards > 3 || rivalCards < 0 || rivalCards > unseenCount) {
+                throw new IllegalArgumentException("cantidad de cartas inválida");
+            }
+            // El que juega tiene tantas cartas como el rival o una más (el rival ya jugó)
+            if (ownCards - rivalCards != 0 && ownCards - rivalCards != 1) {
+                throw new IllegalArgumentException("manos imposibles: " + ownCards + " cartas propias y "
+                        + rivalCards + " del rival");
+            }
+        }
+
+        private Evaluation compute(int ownEscobas, int rivalEscobas, int rivalCards, long salt) {
+            int unseenCount = 0;
+            for (long m = CardMask.ALL & ~(masks[0] | masks[1] | masks[2] | masks[3]); m != 0; m &= m - 1) {
+                unseen[unseenCount++] = (byte) Long.numberOfTrailingZeros(m);
+            }
+            System.arraycopy(unseen, 0, unseenOrdered, 0, unseenCount);
+            captured[0] = masks[2];
+            captured[1] = masks[3];
+            escobas[0] = ownEscobas;
+            escobas[1] = rivalEscobas;
+
+            // Las jugadas se generan sobre la posición con una mano rival cualquiera
+            deal(rivalCards, unseenCount);
+            view.copyFrom(state, 1);
+            int count = generator.generate(view, moves);
+
+            Evaluation evaluation = new Evaluation(count);
+            for (int m = 0; m < count; m++) {
+                // Las posiciones se cargan en orden de índice, así que slot y carta coinciden
+                evaluation.hands[m] = view.getHandCard(Move.handSlot(moves[m])).getIndex();
+                evaluation.takes[m] = view.tableCards(Move.tableSlots(moves[m]));
+            }
+            for (int m = 0; m < count; m++) {
+                long total = 0;
+                for (int r = 0; r < rollouts; r++) {
+                    random.setSeed(seed ^ (salt * 0x9E3779B97F4A7C15L + r));
+                    shuffle(unseenCount);
+                    deal(rivalCards, unseenCount);
+                    total += playOut(moves[m]);
+                }
+                evaluation.values[m] = (double) total / rollouts;
+            }
+            sort(evaluation);
+            return evaluation;
+        }
+
+        /** Mezcla las cartas no vistas partiendo siempre del mismo orden. */
+        private void shuffle(int n) {
+            // Así la misma semilla da el mismo reparto para todas las jugadas
+            System.arraycopy(unseenOrdered, 0, unseen, 0, n);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte t = unseen[i];
+                unseen[i] = unseen[j];
+                unseen[j] = t;
+            }
+        }
+
+        /** Mano rival con las primeras cartas no vistas y el mazo con el resto. */
+        private void deal(int rivalCards, int unseenCount) {
+            long rival = 0L;
+            for (int i = 0; i < rivalCards; i++) {
+                rival |= 1L << unseen[i];
+            }
+            hands[0] = masks[0];
+            hands[1] = rival;
+            int deckSize = unseenCount - rivalCards;
+            System.arraycopy(unseen, rivalCards, deck, 0, deckSize);
+            state.loadPosition(1, deck, deckSize, masks[1], hands, captured, escobas);
+        }
+
+        private int playOut(long first) {
+            long move = first;
+            while (true) {
+                // Una jugada rechazada no cambia el estado: seguir sería un ciclo sin fin
+                if (!state.jugar(move).isExito()) {
+                    throw new IllegalStateException("jugada rechazada: " + Move.toString(move));
+                }
+                if (state.isGameOver()) {
+                    break;
+                }
+                view.copyFrom(state, state.getCurrentPlayerNumber());
+                move = runner.decide(bot, view);
+            }
+            ScoreCalculator.calculateScores(state.getPlayers(), 2, false, scores);
+            return scores[0] - scores[1];
+        }
+
+        private void sort(Evaluation e) {
+            for (int i = 1; i < e.values.length; i++) {
+                for (int j = i; j > 0 && e.values[j] > e.values[j - 1]; j--) {
+                    swap(e.hands, j);
+                    swap(e.takes, j);
+                    double t = e.values[j];
+                    e.values[j] = e.values[j - 1];
+                    e.values[j - 1] = t;
+                }
+            }
+        }
+
+        private void swap(long[] a, int j) {
+            long t = a[j];
+            a[j] = a[j - 1];
+            a[j - 1] = t;
+        }
+
+        private String format(Evaluation e, int back) {
+            StringBuilder sb = new StringBuilder();
+            for (int m = 0; m < e.values.length; m++) {
+                if (m > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Card.fromIndex(SuitCanonicalizer.applyToCard((int) e.hands[m], back)).toShortString());
+                for (long t = SuitCanonicalizer.apply(e.takes[m], back); t != 0; t &= t - 1) {
+                    sb.append('+').append(Card.fromIndex(Long.numberOfTrailingZeros(t)).toShortString());
+                }
+                sb.append('=').append(String.format("%+.3f", e.values[m]));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Uso: BatchEvaluator [entrada|-] [partidas por jugada] [semilla]
+     * Escribe los resultados en la salida estándar.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String path = args.length > 0 ? args[0] : "-";
+        int rollouts = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 15L;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        Reader input = path.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8);
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+        BatchEvaluator evaluator = new BatchEvaluator(rollouts, threads, 1024, seed);
+        long start = System.nanoTime();
+        long count = evaluator.run(input, output);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d posiciones en %.1f s (%.0f posiciones/s)%n", count, seconds, count / seconds);
+    }
+}
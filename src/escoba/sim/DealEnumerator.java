@@ -0,0 +1,268 @@
+package escoba.sim;
+
+import escoba.model.Card;
+import escoba.model.CardMask;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongPredicate;
+
+/**
+ * Estadísticas exactas de repartos recorriendo todas las combinaciones de cartas.
+ *
+ * Un reparto de k cartas es una máscara de k bits sobre las 40 cartas. Las
+ * máscaras se numeran con el sistema combinatorio (orden colexicográfico): el
+ * rango r se convierte en máscara con unrank() y desde ahí se avanza a la
+ * siguiente máscara del mismo tamaño con operaciones de bits, sin listas ni
+ * objetos. El rango total se parte en tramos para un ForkJoinPool y los
+ * conteos se suman al final, así el resultado es una fracción exacta.
+ *
+ * Para preguntas sobre dos grupos disjuntos (por ejemplo mesa y mano), se
+ * recorren las combinaciones de k1 + k2 cartas y, dentro de cada una, todas las
+ * formas de elegir el primer grupo.
+ */
+public class DealEnumerator {
+
+    /** Predicado sobre dos grupos disjuntos de cartas. */
+    public interface PairPredicate {
+        boolean test(long first, long second);
+    }
+
+    // Tramo de rangos por debajo del cual una tarea ya no se divide
+    private static final long TRAMO = 1 << 14;
+
+    private static final long[][] BINOMIAL = new long[Card.TOTAL_CARTAS + 1][Card.TOTAL_CARTAS + 1];
+
+    static {
+        for (int n = 0; n <= Card.TOTAL_CARTAS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public DealEnumerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Resultado exacto: casos favorables sobre casos totales.
+     */
+    public static final class Result {
+        public final long favorable;
+        public final long total;
+
+        Result(long favorable, long total) {
+            this.favorable = favorable;
+            this.total = total;
+        }
+
+        public double probability() {
+            return (double) favorable / total;
+        }
+
+        /** Fracción reducida, por ejemplo "1234/91390". */
+        public String fraction() {
+            long g = gcd(favorable, total);
+            return (favorable / g) + "/" + (total / g);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s = %.6f (%d de %d)", fraction(), probability(), favorable, total);
+        }
+
+        private static long gcd(long a, long b) {
+            while (b != 0) {
+                long t = a % b;
+                a = b;
+                b = t;
+            }
+            return a == 0 ? 1 : a;
+        }
+    }
+
+    /**
+     * Coeficiente binomial C(n, k) para n hasta 40.
+     */
+    public static long binomial(int n, int k) {
+        return k < 0 || k > n ? 0 : BINOMIAL[n][k];
+    }
+
+    /**
+     * Máscara de k cartas con el rango dado en orden colexicográfico.
+     */
+    public static long unrank(long rank, int k) {
+        long mask = 0L;
+        int c = Card.TOTAL_CARTAS - 1;
+        for (int i = k; i >= 1; i--) {
+            while (BINOMIAL[c][i] > rank) {
+                c--;
+            }
+            mask |= 1L << c;
+            rank -= BINOMIAL[c][i];
+            c--;
+        }
+        return mask;
+    }
+
+    /**
+     * Rango de una máscara en orden colexicográfico (inversa de unrank).
+     */
+    public static long rank(long mask) {
+        long rank = 0;
+        int i = 1;
+        for (long m = mask; m != 0; m &= m - 1) {
+            rank += BINOMIAL[Long.numberOfTrailingZeros(m)][i++];
+        }
+        return rank;
+    }
+
+    /**
+     * Siguiente máscara con la misma cantidad de bits (Gosper).
+     */
+    static long next(long mask) {
+        long lowest = mask & -mask;
+        long ripple = mask + lowest;
+        return (((ripple ^ mask) >>> 2) / lowest) | ripple;
+    }
+
+    /**
+     * Cuenta los repartos de k cartas que cumplen el predicado.
+     */
+    public Result count(int k, LongPredicate predicate) {
+        long total = binomial(Card.TOTAL_CARTAS, k);
+        long favorable = pool.invoke(new Tramo(k, 0, total, predicate, null, 0));
+        return new Result(favorable, total);
+    }
+
+    /**
+     * Cuenta los pares de grupos disjuntos de k1 y k2 cartas que cumplen el predicado.
+     */
+    public Result count(int k1, int k2, PairPredicate predicate) {
+        long combined = binomial(Card.TOTAL_CARTAS, k1 + k2);
+        long total = combined * binomial(k1 + k2, k1);
+        long favorable = pool.invoke(new Tramo(k1 + k2, 0, combined, null, predicate, k1));
+        return new Result(favorable, total);
+    }
+
+    /**
+     * Un tramo [from, to) de rangos. Se divide a la mitad hasta ser chico y
+     * después se recorre en secuencia.
+     */
+    private static final class Tramo extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int k;
+        private final long from;
+        private final long to;
+        private final LongPredicate single;
+        private final PairPredicate pair;
+        private final int k1;
+
+        Tramo(int k, long from, long to, LongPredicate single, PairPredicate pair, int k1) {
+            this.k = k;
+            this.from = from;
+            this.to = to;
+            this.single = single;
+            this.pair = pair;
+            this.k1 = k1;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > TRAMO) {
+                long mid = (from + to) >>> 1;
+                Tramo left = new Tramo(k, from, mid, single, pair, k1);
+                left.fork();
+                long right = new Tramo(k, mid, to, single, pair, k1).compute();
+                return right + left.join();
+            }
+            long count = 0;
+            long mask = unrank(from, k);
+            for (long r = from; r < to; r++) {
+                if (pair == null) {
+                    if (single.test(mask)) {
+                        count++;
+                    }
+                } else {
+                    count += splits(mask);
+                }
+                if (r + 1 < to) {
+                    mask = next(mask);
+                }
+            }
+            return count;
+        }
+
+        /** Formas de partir la máscara en un primer grupo de k1 cartas y el resto que cumplen. */
+        private long splits(long mask) {
+            long count = 0;
+            // Recorre todos los submasks de la máscara y se queda con los de k1 bits
+            for (long sub = mask; ; sub = (sub - 1) & mask) {
+                if (Long.bitCount(sub) == k1 && pair.test(sub, mask & ~sub)) {
+                    count++;
+                }
+                if (sub == 0) {
+                    return count;
+                }
+            }
+        }
+    }
+
+    /**
+     * Si algún subconjunto no vacío de las cartas suma exactamente el objetivo.
+     */
+    public static boolean anySubsetSums(long cards, int target) {
+        for (long sub = cards; sub != 0; sub = (sub - 1) & cards) {
+            if (CardMask.sumValues(sub) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Si alguna carta de la mano captura algo de la mesa.
+     */
+    public static boolean hasCapture(long hand, long table) {
+        for (long h = hand; h != 0; h &= h - 1) {
+            int need = 15 - CardMask.gameValue(Long.numberOfTrailingZeros(h));
+            if (anySubsetSums(table, need)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estadísticas de referencia del reparto inicial.
+     */
+    public static void main(String[] args) {
+        DealEnumerator enumerator = new DealEnumerator(ForkJoinPool.commonPool());
+
+        long start = System.nanoTime();
+        System.out.println("Las 4 cartas de la mesa suman 15: "
+                + enumerator.count(4, table -> CardMask.sumValues(table) == 15));
+        System.out.println("La mesa inicial tiene un subconjunto que suma 15: "
+                + enumerator.count(4, table -> anySubsetSums(table, 15)));
+        System.out.println("La mesa inicial tiene el 7 de Oro: "
+                + enumerator.count(4, table -> (table & (1L << CardMask.SIETE_DE_ORO)) != 0));
+        System.out.println("Una mano de 3 cartas puede capturar en la mesa inicial: "
+                + enumerator.count(4, 3, (table, hand) -> hasCapture(hand, table)));
+        System.out.println("Una mano de 3 cartas puede hacer escoba en la mesa inicial: "
+                + enumerator.count(4, 3, (table, hand) -> {
+                    int sum = CardMask.sumValues(table);
+                    for (long h = hand; h != 0; h &= h - 1) {
+                        if (sum + CardMask.gameValue(Long.numberOfTrailingZeros(h)) == 15) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }));
+        System.out.printf("(%.1f s)%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,191 @@
+package escoba.sim;
+
+import escoba.game.CompactGameState;
+import escoba.game.GameState;
+import escoba.game.MoveGenerator;
+import escoba.game.ScoreCalculator;
+import escoba.model.Deck;
+import escoba.model.Player;
+import escoba.view.RecordingPlayerView;
+
+import java.lang.ref.Reference;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Mide cuánta memoria retiene cada mesa viva y cuántas entran en un GB.
+ *
+ * La medición es empírica: crea muchas instancias, las mantiene vivas, fuerza
+ * recolecciones y divide la diferencia de heap usado por la cantidad. Así
+ * cuenta todo lo alcanzable desde la mesa (mazo, cartas propias del Deck
+ * original, jugadores, listas, rastreadores, observadores) con el diseño real
+ * de objetos de la JVM, sin depender de estimar cabeceras ni alineación.
+ *
+ * Las mesas "en juego" juegan antes unas jugadas elegidas al azar con la misma
+ * semilla en GameState y en CompactGameState. Antes de medir se comprueba que
+ * ambas representaciones lleguen a la misma posición.
+ */
+public final class Footprint {
+
+    private static final int JUGADAS = 8;
+
+    private Footprint() {
+    }
+
+    /**
+     * Bytes retenidos en promedio por cada objeto que crea la fábrica.
+     */
+    public static long retainedBytes(IntFunction<Object> factory, int count) {
+        Object[] keep = new Object[count];
+        long before = usedHeap();
+        for (int i = 0; i < count; i++) {
+            keep[i] = factory.apply(i);
+        }
+        long after = usedHeap();
+        Reference.reachabilityFence(keep);
+        return Math.round((double) (after - before) / count);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Varias pasadas: la primera puede dejar basura de objetos con referencias débiles
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Mesa de 2 jugadores con un reparto de la semilla y JUGADAS jugadas hechas.
+     */
+    static GameState gameInProgress(long seed) {
+        GameState state = new GameState();
+        state.startNewGame(1, new Random(seed));
+        Random moves = new Random(~seed);
+        MoveGenerator generator = new MoveGenerator();
+        long[] legal = new long[MoveGenerator.MAX_JUGADAS];
+        for (int i = 0; i < JUGADAS && !state.isGameOver(); i++) {
+            int n = generator.generate(state.getCurrentPlayer().getHand(), state.getTable(), legal);
+            state.jugar(legal[moves.nextInt(n)]);
+        }
+        return state;
+    }
+
+    /**
+     * La misma partida que gameInProgress, jugada sobre CompactGameState.
+     */
+    static CompactGameState compactInProgress(long seed) {
+        CompactGameState state = new CompactGameState();
+        state.startNewGame(1, new Random(seed));
+        Random moves = new Random(~seed);
+        MoveGenerator generator = new MoveGenerator();
+        long[] legal = new long[MoveGenerator.MAX_JUGADAS];
+        for (int i = 0; i < JUGADAS && !state.isGameOver(); i++) {
+            int n = generator.generate(state.getHand(state.getCurrentPlayerNumber()), state.getTable(), legal);
+            state.jugar(legal[moves.nextInt(n)]);
+        }
+        return state;
+    }
+
+    /**
+     * Juega partidas completas en las dos representaciones y compara cada posición.
+     *
+     * @return Cantidad de jugadas comparadas
+     * @throws IllegalStateException en la primera diferencia
+     */
+    static long verify(int games) {
+        MoveGenerator generator = new MoveGenerator();
+        long[] legal = new long[MoveGenerator.MAX_JUGADAS];
+        int[] scores = new int[2];
+        int[] compactScores = new int[2];
+        int[] escobas = new int[2];
+        GameState full = new GameState();
+        CompactGameState compact = new CompactGameState();
+        long compared = 0;
+        for (int g = 0; g < games; g++) {
+            full.startNewGame(1, new Random(g));
+            compact.startNewGame(1, new Random(g));
+            Random moves = new Random(~g);
+            while (true) {
+                check(full, compact, g);
+                compared++;
+                if (full.isGameOver()) {
+                    break;
+                }
+                int n = generator.generate(full.getCurrentPlayer().getHand(), full.getTable(), legal);
+                long move = legal[moves.nextInt(n)];
+                String esperado = full.jugar(move).getMensaje();
+                String obtenido = compact.jugar(move).getMensaje();
+                if (!esperado.equals(obtenido)) {
+                    throw new IllegalStateException("Partida " + g + ": '" + esperado + "' / '" + obtenido + "'");
+                }
+            }
+            ScoreCalculator.calculateScores(full.getPlayers(), 2, false, scores);
+            compact.calculateScores(compactScores, escobas);
+            if (scores[0] != compactScores[0] || scores[1] != compactScores[1]) {
+                throw new IllegalStateException("Partida " + g + ": puntajes distintos");
+            }
+        }
+        return compared;
+    }
+
+    private static void check(GameState full, CompactGameState compact, int game) {
+        boolean same = full.getTable().equals(compact.getTable())
+                && full.getDeckSize() == compact.getDeckSize()
+                && full.getCurrentPlayerNumber() == compact.getCurrentPlayerNumber()
+                && full.isGameOver() == compact.isGameOver();
+        for (int p = 1; p <= 2 && same; p++) {
+            Player player = full.getPlayer(p);
+            same = player.getHand().equals(compact.getHand(p))
+                    && player.getCapturedMask() == compact.getCapturedMask(p)
+                    && player.getEscobasCount() == compact.getEscobasCount(p);
+        }
+        if (!same) {
+            throw new IllegalStateException("Partida " + game + ": las representaciones difieren");
+        }
+    }
+
+    /**
+     * Uso: Footprint [mesas]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+
+        System.out.printf("Verificación: %d posiciones iguales en GameState y CompactGameState%n", verify(2000));
+
+        // Calentar para que las clases y los cachés estáticos no cuenten en la medición
+        retainedBytes(Footprint::gameInProgress, 1000);
+        retainedBytes(Footprint::compactInProgress, 1000);
+
+        long deck = retainedBytes(i -> new Deck(), count);
+        long player = retainedBytes(i -> new Player("Player 1"), count);
+        long fresh = retainedBytes(i -> new GameState(), count);
+        long playing = retainedBytes(Footprint::gameInProgress, count);
+        long observed = retainedBytes(i -> {
+            GameState state = gameInProgress(i);
+            state.addObserver(new RecordingPlayerView(1, null));
+            state.addObserver(new RecordingPlayerView(2, null));
+            return state;
+        }, count);
+        long compact = retainedBytes(Footprint::compactInProgress, count);
+
+        System.out.printf("Memoria retenida por mesa (promedio de %d):%n", count);
+        System.out.printf("  %-44s %6d bytes%n", "Deck nuevo (40 cartas propias)", deck);
+        System.out.printf("  %-44s %6d bytes%n", "Player vacío", player);
+        System.out.printf("  %-44s %6d bytes%n", "GameState recién creado", fresh);
+        System.out.printf("  %-44s %6d bytes%n", "GameState en juego (" + JUGADAS + " jugadas)", playing);
+        System.out.printf("  %-44s %6d bytes%n", "GameState en juego + 2 vistas observando", observed);
+        System.out.printf("  %-44s %6d bytes%n", "CompactGameState en juego", compact);
+
+        double gb = 1L << 30;
+        System.out.printf("Mesas vivas por GB: GameState con vistas %,.0f, CompactGameState %,.0f (%.1f veces)%n",
+                gb / observed, gb / compact, (double) observed / compact);
+    }
+}
@@ -0,0 +1,87 @@
+package escoba.sim;
+
+import escoba.game.GameState;
+import escoba.game.PositionView;
+import escoba.game.ScoreCalculator;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
+
+import java.util.Random;
+
+/**
+ * Juega partidas completas sin interfaz entre estrategias, con repartos reproducibles.
+ *
+ * Recorre el flujo normal del juego (startNewGame y luego jugarCarta o
+ * intentarCaptura a través de GameState.jugar) y deja el puntaje de la mano,
+ * total y por categoría. Reutiliza su GameState entre partidas; usar una
+ * instancia por hilo.
+ */
+public class GameRunner {
+
+    private final GameState state;
+    private final StrategyRunner runner;
+    private final PositionView view = new PositionView();
+    private final Random random = new Random();
+    private final Random botRandom = new Random();
+    private final int[] scores;
+    private final int[] breakdown;
+    private long moves;
+
+    /**
+     * @param numPlayers Jugadores por partida
+     * @param runner Ejecutor de decisiones (con o sin plazo)
+     */
+    public GameRunner(int numPlayers, StrategyRunner runner) {
+        this.state = new GameState(numPlayers, false);
+        this.runner = runner;
+        this.scores = new int[numPlayers];
+        this.breakdown = new int[numPlayers * ScoreCalculator.NUM_CATEGORIAS];
+        view.setRandom(botRandom);
+    }
+
+    /**
+     * Juega una partida completa.
+     *
+     * @param seats Estrategia de cada asiento (seats[0] es el jugador 1)
+     * @param seed Semilla del reparto; la misma semilla da el mismo mazo y,
+     *             con estrategias que usan el azar de la posición, las mismas jugadas
+     */
+    public void play(Strategy[] seats, long seed) {
+        random.setSeed(seed);
+        botRandom.setSeed(~seed);
+        state.startNewGame(1, random);
+        while (!state.isGameOver()) {
+            int numeroJugador = state.getCurrentPlayerNumber();
+            view.copyFrom(state, numeroJugador);
+            state.jugar(runner.decide(seats[numeroJugador - 1], view));
+            moves++;
+        }
+        ScoreCalculator.calculateScores(state.getPlayers(), state.getNumPlayers(), false, scores);
+        ScoreCalculator.calculateBreakdown(state.getPlayers(), state.getNumPlayers(), false, breakdown);
+    }
+
+    /**
+     * Puntaje del jugador en la última partida.
+     */
+    public int getScore(int playerNumber) {
+        return scores[playerNumber - 1];
+    }
+
+    /**
+     * Puntos del jugador en una categoría (ScoreCalculator.CAT_*) en la última partida.
+     */
+    public int getCategoryPoints(int playerNumber, int category) {
+        return breakdown[(playerNumber - 1) * ScoreCalculator.NUM_CATEGORIAS + category];
+    }
+
+    /**
+     * Jugadas hechas desde que se creó el runner.
+     */
+    public long getMoveCount() {
+        return moves;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,230 @@
+package escoba.sim;
+
+import escoba.game.GameSnapshot;
+import escoba.game.GameState;
+import escoba.game.Move;
+import escoba.game.MoveGenerator;
+import escoba.game.PositionView;
+import escoba.game.ResultadoJugada;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Cuenta el árbol de jugadas de una partida hasta una profundidad, como perft en ajedrez.
+ *
+ * Desde un reparto sembrado recorre todas las secuencias de jugadas legales
+ * que da MoveGenerator, aplicándolas con GameState.jugar (es decir, con la
+ * validación real de jugarCarta e intentarCaptura). Sirve de oráculo: los
+ * totales de un reparto y profundidad dados son fijos, así que cualquier
+ * generador o motor de reglas nuevo tiene que dar los mismos números; y cuenta
+ * las jugadas que el motor rechaza, que deberían ser cero. También sirve de
+ * medida de velocidad en nodos por segundo.
+ *
+ * Cada jugada de la raíz es una tarea de ForkJoin con su propio GameState.
+ * Dentro de una tarea el estado se restaura con GameSnapshot en cada hermano.
+ */
+public class Perft {
+
+    /** Totales de un subárbol. */
+    public static final class Counts {
+        /** Jugadas aplicadas en todo el árbol. */
+        public long nodes;
+        /** Posiciones a la profundidad pedida, más las partidas terminadas antes. */
+        public long leaves;
+        /** Jugadas que fueron capturas. */
+        public long captures;
+        /** Capturas que fueron escoba. */
+        public long escobas;
+        /** Partidas terminadas dentro del árbol. */
+        public long gameOvers;
+        /** Jugadas generadas que GameState rechazó (deberían ser 0). */
+        public long rejected;
+
+        void add(Counts other) {
+            nodes += other.nodes;
+            leaves += other.leaves;
+            captures += other.captures;
+            escobas += other.escobas;
+            gameOvers += other.gameOvers;
+            rejected += other.rejected;
+        }
+    }
+
+    private final int numPlayers;
+    private final long seed;
+
+    /**
+     * @param numPlayers Jugadores de la mesa
+     * @param seed Semilla del reparto
+     */
+    public Perft(int numPlayers, long seed) {
+        this.numPlayers = numPlayers;
+        this.seed = seed;
+    }
+
+    /**
+     * Totales a la profundidad dada, con el detalle por jugada de la raíz.
+     *
+     * @param divide Si no es null, recibe una línea por jugada de la raíz con sus hojas
+     */
+    public Counts run(int depth, ForkJoinPool pool, List<String> divide) {
+        GameState root = new GameState(numPlayers, false);
+        root.startNewGame(1, new Random(seed));
+        if (depth == 0) {
+            Counts counts = new Counts();
+            counts.leaves = 1;
+            return counts;
+        }
+        byte[] snapshot = GameSnapshot.toBytes(root);
+
+        long[] moves = new long[MoveGenerator.MAX_JUGADAS];
+        int count = new MoveGenerator().generate(PositionView.of(root, root.getCurrentPlayerNumber()), moves);
+        List<RootTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new RootTask(snapshot, moves[i], depth));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        Counts total = new Counts();
+        for (RootTask task : tasks) {
+            Counts counts = task.join();
+            total.add(counts);
+            if (divide != null) {
+                divide.add(Move.toString(task.move) + ": " + counts.leaves);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Subárbol de una jugada de la raíz.
+     */
+    private static final class RootTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+        private final byte[] snapshot;
+        private final long move;
+        private final int depth;
+
+        RootTask(byte[] snapshot, long move, int depth) {
+            this.snapshot = snapshot;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Counts compute() {
+            Walker walker = new Walker(depth);
+            GameState state = GameSnapshot.fromBytes(snapshot);
+            if (walker.apply(state, move)) {
+                walker.walk(state, depth - 1);
+            }
+            return walker.counts;
+        }
+    }
+
+    /**
+     * Recorrido secuencial en profundidad. Un buffer de snapshot y un arreglo
+     * de jugadas por nivel, reutilizados en todo el recorrido.
+     */
+    private static final class Walker {
+        private final Counts counts = new Counts();
+        private final MoveGenerator generator = new MoveGenerator();
+        private final PositionView view = new PositionView();
+        private final ByteBuffer[] snapshots;
+        private final long[][] moves;
+
+        Walker(int depth) {
+            snapshots = new ByteBuffer[depth];
+            moves = new long[depth][MoveGenerator.MAX_JUGADAS];
+            for (int d = 0; d < depth; d++) {
+                snapshots[d] = ByteBuffer.allocate(GameSnapshot.MAX_SIZE);
+            }
+        }
+
+        void walk(GameState state, int depth) {
+            if (depth == 0 || state.isGameOver()) {
+                counts.leaves++;
+                return;
+            }
+            ByteBuffer snapshot = snapshots[depth];
+            snapshot.clear();
+            GameSnapshot.write(state, snapshot);
+
+            view.copyFrom(state, state.getCurrentPlayerNumber());
+            long[] level = moves[depth];
+            int count = generator.generate(view, level);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    snapshot.flip();
+                    GameSnapshot.read(snapshot, state);
+                    snapshot.limit(snapshot.capacity());
+                }
+                // Una jugada rechazada no cambia la posición: no tiene subárbol
+                if (apply(state, level[i])) {
+                    walk(state, depth - 1);
+                }
+            }
+        }
+
+        /**
+         * Juega una jugada y la cuenta.
+         *
+         * @return false si el estado la rechazó
+         */
+        boolean apply(GameState state, long move) {
+            int player = state.getCurrentPlayerNumber();
+            int escobasBefore = state.getPlayer(player).getEscobasCount();
+            ResultadoJugada result = state.jugar(move);
+            counts.nodes++;
+            if (!result.isExito()) {
+                counts.rejected++;
+                return false;
+            }
+            if (Move.esCaptura(move)) {
+                counts.captures++;
+                // El resultado no marca la escoba si además termina la partida
+                if (state.getPlayer(player).getEscobasCount() > escobasBefore) {
+                    counts.escobas++;
+                }
+            }
+            if (state.isGameOver()) {
+                counts.gameOvers++;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Uso: Perft [profundidad] [semilla] [jugadores]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 15L;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        Perft perft = new Perft(players, seed);
+        List<String> divide = new ArrayList<>();
+        long start = System.nanoTime();
+        Counts counts = perft.run(depth, ForkJoinPool.commonPool(), divide);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        for (String line : divide) {
+            System.out.println(line);
+        }
+        System.out.printf("%nProfundidad %d, semilla %d, %d jugadores%n", depth, seed, players);
+        System.out.printf("Hojas: %d  Nodos: %d  Capturas: %d  Escobas: %d  Fin de partida: %d  Rechazadas: %d%n",
+                counts.leaves, counts.nodes, counts.captures, counts.escobas, counts.gameOvers, counts.rejected);
+        System.out.printf("%.2f s, %.0f nodos/s%n", seconds, counts.nodes / seconds);
+    }
+}
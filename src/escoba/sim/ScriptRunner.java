@@ -0,0 +1,209 @@
+package escoba.sim;
+
+import escoba.controller.GameController;
+import escoba.game.GameState;
+import escoba.metrics.GameMetrics;
+import escoba.metrics.TextMetricsExporter;
+import escoba.view.RecordingPlayerView;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Ejecuta guiones de comandos contra GameController sin interfaz gráfica.
+ *
+ * Un guion tiene una línea por comando con el número de jugador y el texto que
+ * habría escrito en su ventana, por ejemplo "1 jugar 2 llevar 1 3". Las líneas
+ * vacías y las que empiezan con '#' se ignoran. Una línea "semilla N" (o
+ * "seed N") antes del primer comando fija la mezcla del mazo para que el guion
+ * se repita igual. Las vistas Swing se reemplazan por RecordingPlayerView, que
+ * arma el transcript de la sesión, y "salir" termina el guion en lugar de la
+ * aplicación.
+ *
+ * Cada guion corre con su propio GameState y controlador, así que muchos
+ * guiones se ejecutan en paralelo. Sirve para repetir sesiones reales como
+ * prueba de regresión a la velocidad de la máquina.
+ */
+public class ScriptRunner {
+
+    /** Resultado de ejecutar un guion. */
+    public static final class Outcome {
+        public final String name;
+        public long commands;
+        public long errors;
+        public boolean exited;
+        public boolean gameOver;
+        public long nanos;
+        public String transcript;
+
+        Outcome(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Ejecuta un guion.
+     *
+     * @param name Nombre para el informe
+     * @param lines Líneas del guion
+     * @param keepTranscript Si se arma el transcript (si no, las vistas son nulas)
+     * @throws IllegalArgumentException si una línea no tiene el formato esperado
+     */
+    public static Outcome run(String name, List<String> lines, boolean keepTranscript) {
+        Outcome outcome = new Outcome(name);
+        StringBuilder transcript = keepTranscript ? new StringBuilder() : null;
+        RecordingPlayerView view1 = new RecordingPlayerView(1, transcript);
+        RecordingPlayerView view2 = new RecordingPlayerView(2, transcript);
+        GameState state = new GameState();
+        GameController controller = new GameController(state, view1, view2);
+        boolean[] exited = new boolean[1];
+        controller.setExitAction(() -> exited[0] = true);
+
+        long start = System.nanoTime();
+        boolean started = false;
+        for (int i = 0; i < lines.size() && !exited[0]; i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            String first = space < 0 ? line : line.substring(0, space);
+            if (first.equals("semilla") || first.equals("seed")) {
+                if (started) {
+                    throw new IllegalArgumentException(name + ":" + (i + 1) + ": la semilla va antes del primer comando");
+                }
+                controller.setDealRandom(new Random(Long.parseLong(line.substring(space + 1).trim())));
+                continue;
+            }
+            int player;
+            try {
+                player = Integer.parseInt(first);
+            } catch (NumberFormatException e) {
+                player = -1;
+            }
+            if (space < 0 || (player != 1 && player != 2)) {
+                throw new IllegalArgumentException(name + ":" + (i + 1) + ": se esperaba '<jugador> <comando>'");
+            }
+            if (!started) {
+                controller.iniciarJuego();
+                started = true;
+            }
+            if (transcript != null) {
+                transcript.append("> ").append(line).append('\n');
+            }
+            controller.procesarInputJugador(player, line.substring(space + 1));
+            outcome.commands++;
+        }
+        outcome.nanos = System.nanoTime() - start;
+        outcome.errors = view1.getErrorCount() + view2.getErrorCount();
+        outcome.exited = exited[0];
+        outcome.gameOver = state.isGameOver();
+        outcome.transcript = transcript == null ? null : transcript.toString();
+        return outcome;
+    }
+
+    /**
+     * Uso: ScriptRunner [-t directorio] [-r repeticiones] [-m] guion|directorio|- ...
+     *
+     * -t escribe el transcript de cada guion en el directorio; -r repite cada
+     * guion para medir velocidad; -m enciende GameMetrics y al final imprime
+     * las latencias de los caminos calientes. "-" lee un guion de la entrada estándar.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path transcripts = null;
+        int repeat = 1;
+        List<String> names = new ArrayList<>();
+        List<List<String>> scripts = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-t")) {
+                transcripts = Paths.get(args[++i]);
+                Files.createDirectories(transcripts);
+            } else if (args[i].equals("-r")) {
+                repeat = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-m")) {
+                GameMetrics.setEnabled(true);
+            } else if (args[i].equals("-")) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                names.add("stdin");
+                scripts.add(in.lines().collect(Collectors.toList()));
+            } else {
+                Path path = Paths.get(args[i]);
+                List<Path> files;
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> list = Files.list(path)) {
+                        files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    }
+                } else {
+                    files = List.of(path);
+                }
+                for (Path file : files) {
+                    names.add(file.getFileName().toString());
+                    scripts.add(Files.readAllLines(file, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (scripts.isEmpty()) {
+            System.err.println("Uso: ScriptRunner [-t directorio] [-r repeticiones] [-m] guion|directorio|- ...");
+            System.exit(1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<Outcome>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int r = 0; r < repeat; r++) {
+            for (int s = 0; s < scripts.size(); s++) {
+                String name = names.get(s);
+                List<String> lines = scripts.get(s);
+                boolean keep = transcripts != null && r == 0;
+                futures.add(executor.submit(() -> run(name, lines, keep)));
+            }
+        }
+
+        long commands = 0;
+        int failed = 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Outcome outcome;
+                try {
+                    outcome = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    System.out.println(names.get(i % scripts.size()) + ": " + e.getCause().getMessage());
+                    failed++;
+                    continue;
+                }
+                commands += outcome.commands;
+                if (i < scripts.size()) {
+                    System.out.printf("%s: %d comandos, %d errores%s%s%n", outcome.name, outcome.commands,
+                            outcome.errors, outcome.gameOver ? ", partida terminada" : "",
+                            outcome.exited ? ", salió" : "");
+                    if (outcome.transcript != null) {
+                        Files.writeString(transcripts.resolve(outcome.name + ".transcript"), outcome.transcript,
+                                StandardCharsets.UTF_8);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d guiones (%d con error), %d comandos en %.2f s (%.0f comandos/s)%n",
+                futures.size(), failed, commands, seconds, commands / seconds);
+        if (GameMetrics.isEnabled()) {
+            System.out.print(TextMetricsExporter.dump());
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package escoba.sim;
+
+import escoba.bots.EscobaSeekingStrategy;
+import escoba.bots.GreedyCaptureStrategy;
+import escoba.bots.RandomStrategy;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparación A/B entre dos estrategias con test secuencial (SPRT).
+ *
+ * Se juegan pares de partidas espejo (mismo reparto, asientos cambiados) en lotes
+ * paralelos. Después de cada lote se calcula la razón de verosimilitud entre
+ * H0: "A supera a B por elo0" y H1: "A supera a B por elo1", y se corta apenas
+ * cruza uno de los límites. Cada par cuenta como una sola observación (con cinco
+ * resultados posibles: 0, 0.5, 1, 1.5 o 2 puntos), así la correlación que
+ * introduce el reparto compartido no infla la confianza.
+ */
+public class SprtComparison {
+
+    /** Resultado del test. */
+    public enum Decision { H0, H1, SIN_DECISION }
+
+    private final Strategy a;
+    private final Strategy b;
+    private final double elo0;
+    private final double elo1;
+    private final double lower;
+    private final double upper;
+    private final int batchPairs;
+    private final long maxPairs;
+    private final long seed;
+    private final int threads;
+
+    // Pares ficticios sumados a cada casillero al estimar la varianza del LLR
+    private static final double PSEUDO_CUENTA = 1e-3;
+
+    // Cantidad de pares por puntaje de A: 0, 0.5, 1, 1.5, 2
+    private final long[] pentanomial = new long[5];
+    private long pairs;
+
+    /**
+     * @param a Estrategia candidata
+     * @param b Estrategia de referencia
+     * @param elo0 Diferencia de Elo bajo H0
+     * @param elo1 Diferencia de Elo bajo H1 (mayor que elo0)
+     * @param alpha Probabilidad de aceptar H1 siendo cierta H0
+     * @param beta Probabilidad de aceptar H0 siendo cierta H1
+     * @param batchPairs Pares por lote entre test y test
+     * @param maxPairs Tope de pares si el test no decide
+     * @param seed Semilla base de los repartos
+     * @param threads Hilos de simulación
+     */
+    public SprtComparison(Strategy a, Strategy b, double elo0, double elo1, double alpha, double beta,
+                          int batchPairs, long maxPairs, long seed, int threads) {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 debe ser mayor que elo0");
+        }
+        this.a = a;
+        this.b = b;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+        this.batchPairs = batchPairs;
+        this.maxPairs = maxPairs;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Juega lotes hasta que el test decide o se llega al tope de pares.
+     */
+    public Decision run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<GameRunner> runners = ThreadLocal.withInitial(
+                () -> new GameRunner(2, new StrategyRunner(0, TimeUnit.MILLISECONDS)));
+        try {
+            while (pairs < maxPairs) {
+                long batch = Math.min(batchPairs, maxPairs - pairs);
+                List<Future<long[]>> parts = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    long from = pairs + batch * t / threads;
+                    long to = pairs + batch * (t + 1) / threads;
+                    parts.add(executor.submit(() -> playPairs(runners.get(), from, to)));
+                }
+                for (Future<long[]> part : parts) {
+                    long[] counts = part.get();
+                    for (int k = 0; k < counts.length; k++) {
+                        pentanomial[k] += counts[k];
+                    }
+                }
+                pairs += batch;
+
+                double llr = llr();
+                if (llr >= upper) {
+                    return Decision.H1;
+                }
+                if (llr <= lower) {
+                    return Decision.H0;
+                }
+            }
+            return Decision.SIN_DECISION;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una partida de la comparación", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long[] playPairs(GameRunner runner, long from, long to) {
+        long[] counts = new long[5];
+        Strategy[] abSeats = {a, b};
+        Strategy[] baSeats = {b, a};
+        for (long k = from; k < to; k++) {
+            long dealSeed = Tournament.dealSeed(seed, k);
+            runner.play(abSeats, dealSeed);
+            int halves = halfPoints(runner.getScore(1), runner.getScore(2));
+            runner.play(baSeats, dealSeed);
+            halves += halfPoints(runner.getScore(2), runner.getScore(1));
+            counts[halves]++;
+        }
+        return counts;
+    }
+
+    /** Medios puntos de A en una partida: 2 si gana, 1 si empata, 0 si pierde. */
+    private static int halfPoints(int scoreA, int scoreB) {
+        return scoreA > scoreB ? 2 : scoreA == scoreB ? 1 : 0;
+    }
+
+    /** Puntaje esperado por partida para una diferencia de Elo. */
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /** Puntaje medio de A por partida en lo jugado hasta ahora. */
+    public double getScore() {
+        double sum = 0;
+        for (int k = 0; k < 5; k++) {
+            sum += pentanomial[k] * k / 4.0;
+        }
+        return pairs == 0 ? 0.5 : sum / pairs;
+    }
+
+    /** Varianza del puntaje medio por par. */
+    private double pairVariance() {
+        double mean = getScore();
+        double var = 0;
+        for (int k = 0; k < 5; k++) {
+            double d = k / 4.0 - mean;
+            var += pentanomial[k] * d * d;
+        }
+        return var / pairs;
+    }
+
+    /**
+     * Log de la razón de verosimilitud H1/H0 (aproximación normal sobre los pares).
+     *
+     * Como en fishtest, a cada casillero del pentanomio se le suma una
+     * pseudo-cuenta antes de estimar media y varianza. Sin eso, una serie en
+     * la que todos los pares terminan igual (por ejemplo, todos 2-0) tiene
+     * varianza 0 y el test no decidiría nunca.
+     */
+    public double llr() {
+        if (pairs == 0) {
+            return 0;
+        }
+        double total = 0;
+        double sum = 0;
+        for (int k = 0; k < 5; k++) {
+            double count = pentanomial[k] + PSEUDO_CUENTA;
+            total += count;
+            sum += count * k / 4.0;
+        }
+        double mean = sum / total;
+        double var = 0;
+        for (int k = 0; k < 5; k++) {
+            double d = k / 4.0 - mean;
+            var += (pentanomial[k] + PSEUDO_CUENTA) * d * d;
+        }
+        var /= total;
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return (s1 - s0) * (2 * mean - s0 - s1) * total / (2 * var);
+    }
+
+    /**
+     * Probabilidad de que A sea mejor que B (likelihood of superiority).
+     */
+    public double likelihoodOfSuperiority() {
+        double var = pairVariance();
+        if (pairs == 0 || var == 0) {
+            return getScore() > 0.5 ? 1 : getScore() < 0.5 ? 0 : 0.5;
+        }
+        return normalCdf((getScore() - 0.5) / Math.sqrt(var / pairs));
+    }
+
+    private static double elo(double score) {
+        score = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    // Aproximación de Zelen y Severo (error menor a 1e-7)
+    private static double normalCdf(double x) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(x));
+        double poly = t * (0.319381530 + t * (-0.356563782 + t * (1.781477937
+                + t * (-1.821255978 + t * 1.330274429))));
+        double tail = Math.exp(-x * x / 2) / Math.sqrt(2 * Math.PI) * poly;
+        return x >= 0 ? 1 - tail : tail;
+    }
+
+    public long getGames() {
+        return pairs * 2;
+    }
+
+    /**
+     * Informe de texto con partidas usadas, resultado y confianza.
+     */
+    public String report(Decision decision, double seconds) {
+        double score = getScore();
+        double margin = pairs == 0 ? 0 : 1.96 * Math.sqrt(pairVariance() / pairs);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("SPRT %s contra %s, H0: %.1f Elo, H1: %.1f Elo%n", a.getName(), b.getName(), elo0, elo1));
+        sb.append(String.format("Partidas: %d (%d pares) en %.1f s%n", getGames(), pairs, seconds));
+        sb.append(String.format("Pares [0, ½, 1, 1½, 2]: [%d, %d, %d, %d, %d]%n",
+                pentanomial[0], pentanomial[1], pentanomial[2], pentanomial[3], pentanomial[4]));
+        sb.append(String.format("Puntaje de A: %.2f%% (Elo %.1f, IC 95%% [%.1f, %.1f])%n",
+                100 * score, elo(score), elo(score - margin), elo(score + margin)));
+        sb.append(String.format("LLR: %.3f (límites [%.3f, %.3f])%n", llr(), lower, upper));
+        sb.append(String.format("Probabilidad de que A sea mejor: %.4f%n", likelihoodOfSuperiority()));
+        if (decision == Decision.H1) {
+            sb.append("Resultado: se acepta H1, A es mejor\n");
+        } else if (decision == Decision.H0) {
+            sb.append("Resultado: se acepta H0, A no es mejor\n");
+        } else {
+            sb.append("Resultado: sin decisión al llegar al tope de partidas\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Uso: SprtComparison [a] [b] [elo0] [elo1] [semilla]
+     * con a y b entre aleatorio, codicioso y escobero.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Strategy a = bot(args.length > 0 ? args[0] : "escobero");
+        Strategy b = bot(args.length > 1 ? args[1] : "codicioso");
+        double elo0 = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        double elo1 = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 15L;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        SprtComparison sprt = new SprtComparison(a, b, elo0, elo1, 0.05, 0.05, 1000, 1_000_000, seed, threads);
+        long start = System.nanoTime();
+        Decision decision = sprt.run();
+        System.out.print(sprt.report(decision, (System.nanoTime() - start) / 1e9));
+    }
+
+    private static Strategy bot(String name) {
+        switch (name) {
+            case "aleatorio": return new RandomStrategy();
+            case "codicioso": return new GreedyCaptureStrategy();
+            case "escobero": return new EscobaSeekingStrategy();
+            default:
+                throw new IllegalArgumentException("Estrategia desconocida: " + name);
+        }
+    }
+}
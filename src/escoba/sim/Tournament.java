@@ -0,0 +1,298 @@
+package escoba.sim;
+
+import escoba.bots.EscobaSeekingStrategy;
+import escoba.bots.GreedyCaptureStrategy;
+import escoba.bots.RandomStrategy;
+import escoba.game.ScoreCalculator;
+import escoba.game.Strategy;
+import escoba.game.StrategyRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Torneo todos contra todos entre estrategias.
+ *
+ * Cada pareja de estrategias juega la misma lista de repartos sembrados, y cada
+ * reparto se juega dos veces con los asientos cambiados (partida espejo): así la
+ * suerte de las cartas se cancela y las diferencias miden a las estrategias.
+ * Las partidas se reparten entre todos los núcleos.
+ *
+ * El informe incluye porcentaje de puntos, Elo (Bradley-Terry, empate = medio
+ * punto) con intervalo de confianza del 95% y los puntos promedio por categoría
+ * de ScoreCalculator.
+ */
+public class Tournament {
+
+    private static final String[] CATEGORIAS = {"Escobas", "Cartas", "Oros", "7 de Oro", "Sietes"};
+
+    private final Strategy[] strategies;
+    private final int dealsPerPairing;
+    private final long seed;
+    private final int threads;
+
+    /**
+     * @param strategies Participantes
+     * @param dealsPerPairing Repartos por pareja (cada uno se juega dos veces)
+     * @param seed Semilla base de los repartos
+     * @param threads Hilos de simulación
+     */
+    public Tournament(List<Strategy> strategies, int dealsPerPairing, long seed, int threads) {
+        this.strategies = strategies.toArray(new Strategy[0]);
+        this.dealsPerPairing = dealsPerPairing;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Resultados acumulados. Cada hilo llena el suyo y al final se combinan.
+     */
+    public static final class Results {
+        final int n;
+        final long[][] wins;      // wins[i][j]: partidas que i le ganó a j
+        final long[][] draws;
+        final long[][] categories;  // puntos por estrategia y categoría
+        final long[] games;
+        final long[] points;
+        long moves;
+
+        Results(int n) {
+            this.n = n;
+            this.wins = new long[n][n];
+            this.draws = new long[n][n];
+            this.categories = new long[n][ScoreCalculator.NUM_CATEGORIAS];
+            this.games = new long[n];
+            this.points = new long[n];
+        }
+
+        void merge(Results other) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    wins[i][j] += other.wins[i][j];
+                    draws[i][j] += other.draws[i][j];
+                }
+                for (int c = 0; c < ScoreCalculator.NUM_CATEGORIAS; c++) {
+                    categories[i][c] += other.categories[i][c];
+                }
+                games[i] += other.games[i];
+                points[i] += other.points[i];
+            }
+            moves += other.moves;
+        }
+
+        /** Fracción de puntos (victoria 1, empate 0.5) de i sobre todas sus partidas. */
+        public double scoreRate(int i) {
+            double s = 0;
+            long n = 0;
+            for (int j = 0; j < this.n; j++) {
+                s += wins[i][j] + 0.5 * draws[i][j];
+                n += wins[i][j] + wins[j][i] + draws[i][j];
+            }
+            return n == 0 ? 0.5 : s / n;
+        }
+    }
+
+    /**
+     * Juega el torneo completo.
+     */
+    public Results run() throws InterruptedException {
+        int n = strategies.length;
+        List<int[]> pairings = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                pairings.add(new int[]{i, j});
+            }
+        }
+        long totalDeals = (long) pairings.size() * dealsPerPairing;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Results>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long from = totalDeals * t / threads;
+                long to = totalDeals * (t + 1) / threads;
+                parts.add(executor.submit(() -> playRange(pairings, from, to)));
+            }
+            Results total = new Results(n);
+            for (Future<Results> part : parts) {
+                total.merge(part.get());
+            }
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una partida del torneo", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Results playRange(List<int[]> pairings, long from, long to) {
+        Results results = new Results(strategies.length);
+        GameRunner runner = new GameRunner(2, new StrategyRunner(0, TimeUnit.MILLISECONDS));
+        Strategy[] seats = new Strategy[2];
+        for (long k = from; k < to; k++) {
+            int[] pairing = pairings.get((int) (k / dealsPerPairing));
+            long dealSeed = dealSeed(seed, k % dealsPerPairing);
+            for (int swap = 0; swap < 2; swap++) {
+                int a = pairing[swap];
+                int b = pairing[1 - swap];
+                seats[0] = strategies[a];
+                seats[1] = strategies[b];
+                runner.play(seats, dealSeed);
+                record(results, runner, a, b);
+            }
+        }
+        results.moves = runner.getMoveCount();
+        return results;
+    }
+
+    private static void record(Results results, GameRunner runner, int a, int b) {
+        int scoreA = runner.getScore(1);
+        int scoreB = runner.getScore(2);
+        if (scoreA > scoreB) {
+            results.wins[a][b]++;
+        } else if (scoreB > scoreA) {
+            results.wins[b][a]++;
+        } else {
+            results.draws[a][b]++;
+            results.draws[b][a]++;
+        }
+        results.games[a]++;
+        results.games[b]++;
+        results.points[a] += scoreA;
+        results.points[b] += scoreB;
+        for (int c = 0; c < ScoreCalculator.NUM_CATEGORIAS; c++) {
+            results.categories[a][c] += runner.getCategoryPoints(1, c);
+            results.categories[b][c] += runner.getCategoryPoints(2, c);
+        }
+    }
+
+    /**
+     * Semilla del reparto k, igual para todas las parejas.
+     */
+    static long dealSeed(long base, long k) {
+        long z = base + k * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Elo por máxima verosimilitud (Bradley-Terry) con media 0.
+     *
+     * @param errors Si no es null, recibe el error estándar de cada Elo
+     */
+    public static double[] elo(Results r, double[] errors) {
+        int n = r.n;
+        double[] gamma = new double[n];
+        Arrays.fill(gamma, 1.0);
+        for (int iter = 0; iter < 1000; iter++) {
+            double maxChange = 0;
+            for (int i = 0; i < n; i++) {
+                double score = 0;
+                double denom = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    long games = r.wins[i][j] + r.wins[j][i] + r.draws[i][j];
+                    score += r.wins[i][j] + 0.5 * r.draws[i][j];
+                    denom += games / (gamma[i] + gamma[j]);
+                }
+                // Se suma medio punto ficticio para que nadie quede en 0 o infinito
+                double next = (score + 0.5) / (denom + 1.0 / (gamma[i] + 1.0));
+                maxChange = Math.max(maxChange, Math.abs(Math.log(next / gamma[i])));
+                gamma[i] = next;
+            }
+            if (maxChange < 1e-9) {
+                break;
+            }
+        }
+
+        double[] elo = new double[n];
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            elo[i] = 400 * Math.log10(gamma[i]);
+            mean += elo[i] / n;
+        }
+        double k = Math.log(10) / 400;
+        for (int i = 0; i < n; i++) {
+            elo[i] -= mean;
+            if (errors != null) {
+                double info = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i != j) {
+                        long games = r.wins[i][j] + r.wins[j][i] + r.draws[i][j];
+                        double p = gamma[i] / (gamma[i] + gamma[j]);
+                        info += games * p * (1 - p) * k * k;
+                    }
+                }
+                errors[i] = info > 0 ? 1 / Math.sqrt(info) : Double.POSITIVE_INFINITY;
+            }
+        }
+        return elo;
+    }
+
+    /**
+     * Informe de texto del torneo.
+     */
+    public String report(Results r, double seconds) {
+        int n = strategies.length;
+        double[] errors = new double[n];
+        double[] elo = elo(r, errors);
+        long totalGames = 0;
+        for (long g : r.games) {
+            totalGames += g;
+        }
+        totalGames /= 2;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Torneo: %d estrategias, %d partidas en %.1f s (%.0f partidas/s, %.0f jugadas/s)%n%n",
+                n, totalGames, seconds, totalGames / seconds, r.moves / seconds));
+        sb.append(String.format("%-14s %8s %8s %16s %8s", "Estrategia", "Partidas", "% pts", "Elo (IC 95%)", "Pts/p"));
+        for (String categoria : CATEGORIAS) {
+            sb.append(String.format(" %9s", categoria));
+        }
+        sb.append('\n');
+        for (int i = 0; i < n; i++) {
+            sb.append(String.format("%-14s %8d %7.1f%% %7.0f ± %-6.0f %8.2f",
+                    strategies[i].getName(), r.games[i], 100 * r.scoreRate(i), elo[i], 1.96 * errors[i],
+                    (double) r.points[i] / r.games[i]));
+            for (int c = 0; c < ScoreCalculator.NUM_CATEGORIAS; c++) {
+                sb.append(String.format(" %9.3f", (double) r.categories[i][c] / r.games[i]));
+            }
+            sb.append('\n');
+        }
+        sb.append("\nVictorias (fila contra columna):\n");
+        for (int i = 0; i < n; i++) {
+            sb.append(String.format("%-14s", strategies[i].getName()));
+            for (int j = 0; j < n; j++) {
+                sb.append(i == j ? String.format(" %13s", "-")
+                        : String.format(" %6d/%-6d", r.wins[i][j], r.wins[j][i]));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Uso: Tournament [repartos por pareja] [semilla] [hilos]
+     * Enfrenta a los bots de referencia.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int deals = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 15L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        List<Strategy> bots = List.of(new RandomStrategy(), new GreedyCaptureStrategy(), new EscobaSeekingStrategy());
+        Tournament tournament = new Tournament(bots, deals, seed, threads);
+        long start = System.nanoTime();
+        Results results = tournament.run();
+        System.out.print(tournament.report(results, (System.nanoTime() - start) / 1e9));
+    }
+}
@@ -0,0 +1,53 @@
+package escoba.view;
+
+import escoba.model.Card;
+import escoba.model.Player;
+import framework.observer.IObserver;
+
+import java.util.List;
+
+/**
+ * Salida de un jugador: lo que el GameController necesita de una vista.
+ * PlayerView la implementa con Swing; en el servidor puede ser una conexión
+ * remota o una vista nula.
+ */
+public interface IPlayerView extends IObserver {
+
+    /**
+     * Muestra el estado completo del juego desde la perspectiva del jugador.
+     *
+     * @param table Cartas en la mesa
+     * @param player El jugador dueño de esta vista
+     * @param opponent El oponente
+     * @param deckSize Cartas restantes en el mazo
+     * @param isCurrentPlayer Si es el turno de este jugador
+     */
+    void displayGameState(List<Card> table, Player player, Player opponent,
+                          int deckSize, boolean isCurrentPlayer);
+
+    /**
+     * Actualiza el estado mostrado después de una jugada, sabiendo qué partes
+     * cambiaron desde la actualización anterior, para redibujar solo eso.
+     * Por defecto redibuja todo con displayGameState.
+     *
+     * @param changed Partes cambiadas (escoba.net.WireProtocol.PART_*); 0 si no cambió nada
+     */
+    default void displayChanges(int changed, List<Card> table, Player player, Player opponent,
+                                int deckSize, boolean isCurrentPlayer) {
+        displayGameState(table, player, opponent, deckSize, isCurrentPlayer);
+    }
+
+    /**
+     * Muestra un mensaje normal al jugador.
+     *
+     * @param message Mensaje a mostrar
+     */
+    void displayMessage(String message);
+
+    /**
+     * Muestra un mensaje de error al jugador.
+     *
+     * @param error Mensaje de error
+     */
+    void displayError(String error);
+}
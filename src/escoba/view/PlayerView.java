@@ -1,10 +1,11 @@
 package escoba.view;
 
 import escoba.events.GameEvent;
+import escoba.metrics.GameMetrics;
 import escoba.model.Card;
 import escoba.model.Player;
+import escoba.net.WireProtocol;
 import framework.observer.IObservable;
-import framework.observer.IObserver;
 
 import javax.swing.*;
 import java.awt.*;
@@ -30,7 +31,7 @@ import java.util.List;
  * - Cambiar fuente: modificar Font()
  * - Cambiar textos: modificar los strings en displayGameState() y displayHelp()
  */
-public class PlayerView implements IObserver {
+public class PlayerView implements IPlayerView {
     // Componentes de la ventana
     private JFrame frame;           // La ventana principal
     private JTextArea textArea;     // Área de texto para mostrar el juego
@@ -206,59 +207,92 @@ public class PlayerView implements IObserver {
      * @param deckSize Cartas restantes en el mazo
      * @param isCurrentPlayer Si es el turno de este jugador
      */
+    @Override
     public void displayGameState(List<Card> table, Player player, Player opponent,
                                   int deckSize, boolean isCurrentPlayer) {
+        displayChanges(WireProtocol.PART_ALL, table, player, opponent, deckSize, isCurrentPlayer);
+    }
+
+    /**
+     * Muestra solo las secciones que cambiaron desde la última actualización.
+     *
+     * SECCIONES:
+     * - Mesa: si cambió la mesa
+     * - Mano: si cambió la mano del jugador
+     * - Puntaje: si cambiaron las capturas, las escobas o el mazo
+     * - Turno: si cambió de quién es el turno
+     *
+     * @param changed Partes cambiadas (WireProtocol.PART_*); 0 = no muestra nada
+     */
+    @Override
+    public void displayChanges(int changed, List<Card> table, Player player, Player opponent,
+                               int deckSize, boolean isCurrentPlayer) {
+        if (changed == 0) {
+            return;
+        }
+        long inicio = GameMetrics.start();
         StringBuilder sb = new StringBuilder();
-        sb.append("=== LA ESCOBA DE 15 ===\n\n");
+        if (changed == WireProtocol.PART_ALL) {
+            sb.append("=== LA ESCOBA DE 15 ===\n\n");
+        }
 
         // Mostrar cartas en la mesa
-        sb.append("CARTAS EN LA MESA:\n");
-        if (table.isEmpty()) {
-            sb.append("  [mesa vacía]\n");
-        } else {
-            for (int i = 0; i < table.size(); i++) {
-                Card card = table.get(i);
-                sb.append("  [" + (i + 1) + "] " + card + " (valor: " + card.getGameValue() + ")\n");
+        if ((changed & WireProtocol.PART_TABLE) != 0) {
+            sb.append("CARTAS EN LA MESA:\n");
+            if (table.isEmpty()) {
+                sb.append("  [mesa vacía]\n");
+            } else {
+                for (int i = 0; i < table.size(); i++) {
+                    Card card = table.get(i);
+                    sb.append("  [" + (i + 1) + "] " + card + " (valor: " + card.getGameValue() + ")\n");
+                }
             }
+            sb.append("\n");
         }
-        sb.append("\n");
 
         // Mostrar mano del jugador
-        sb.append("TU MANO:\n");
-        List<Card> hand = player.getHand();
-        if (hand.isEmpty()) {
-            sb.append("  [sin cartas]\n");
-        } else {
-            for (int i = 0; i < hand.size(); i++) {
-                Card card = hand.get(i);
-                sb.append("  [" + (i + 1) + "] " + card + " (valor: " + card.getGameValue() + ")\n");
+        if ((changed & WireProtocol.PART_HAND) != 0) {
+            sb.append("TU MANO:\n");
+            List<Card> hand = player.getHand();
+            if (hand.isEmpty()) {
+                sb.append("  [sin cartas]\n");
+            } else {
+                for (int i = 0; i < hand.size(); i++) {
+                    Card card = hand.get(i);
+                    sb.append("  [" + (i + 1) + "] " + card + " (valor: " + card.getGameValue() + ")\n");
+                }
             }
+            sb.append("\n");
         }
-        sb.append("\n");
 
-        // Mostrar puntajes
-        sb.append("PUNTAJE:\n");
-        sb.append("  " + player.getName() + ": " + player.getCapturedCount() +
-                  " cartas, " + player.getEscobasCount() + " escobas\n");
-        sb.append("  " + opponent.getName() + ": " + opponent.getCapturedCount() +
-                  " cartas, " + opponent.getEscobasCount() + " escobas\n");
-        sb.append("  Cartas en el mazo: " + deckSize + "\n\n");
+        // Mostrar puntajes (el mazo va en el encabezado del delta)
+        if ((changed & (WireProtocol.PART_PLAYERS | WireProtocol.PART_HEADER)) != 0) {
+            sb.append("PUNTAJE:\n");
+            sb.append("  " + player.getName() + ": " + player.getCapturedCount() +
+                      " cartas, " + player.getEscobasCount() + " escobas\n");
+            sb.append("  " + opponent.getName() + ": " + opponent.getCapturedCount() +
+                      " cartas, " + opponent.getEscobasCount() + " escobas\n");
+            sb.append("  Cartas en el mazo: " + deckSize + "\n\n");
+        }
 
         // Mostrar estado del turno
-        if (isCurrentPlayer) {
-            sb.append(">>> TU TURNO <<<\n");
-            sb.append("Comandos:\n");
-            sb.append("  jugar <carta#> - Poner carta en la mesa\n");
-            sb.append("  jugar <carta#> llevar <mesa#> <mesa#> ... - Capturar cartas (deben sumar 15)\n");
-            sb.append("  Ejemplo: jugar 1 llevar 2 3\n");
-            sb.append("  ayuda - Mostrar ayuda\n");
-            sb.append("  salir - Salir del juego\n");
-        } else {
-            sb.append("Esperando al otro jugador...\n");
+        if ((changed & WireProtocol.PART_HEADER) != 0) {
+            if (isCurrentPlayer) {
+                sb.append(">>> TU TURNO <<<\n");
+                sb.append("Comandos:\n");
+                sb.append("  jugar <carta#> - Poner carta en la mesa\n");
+                sb.append("  jugar <carta#> llevar <mesa#> <mesa#> ... - Capturar cartas (deben sumar 15)\n");
+                sb.append("  Ejemplo: jugar 1 llevar 2 3\n");
+                sb.append("  ayuda - Mostrar ayuda\n");
+                sb.append("  salir - Salir del juego\n");
+            } else {
+                sb.append("Esperando al otro jugador...\n");
+            }
+            sb.append("\n");
         }
-        sb.append("\n");
 
         appendText(sb.toString());
+        GameMetrics.stop(GameMetrics.RENDER, inicio);
     }
 
     /**
@@ -266,6 +300,7 @@ public class PlayerView implements IObserver {
      *
      * @param message Mensaje a mostrar
      */
+    @Override
     public void displayMessage(String message) {
         appendText(message + "\n");
     }
@@ -275,6 +310,7 @@ public class PlayerView implements IObserver {
      *
      * @param error Mensaje de error
      */
+    @Override
     public void displayError(String error) {
         appendText("ERROR: " + error + "\n");
     }
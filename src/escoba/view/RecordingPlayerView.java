@@ -0,0 +1,90 @@
+package escoba.view;
+
+import escoba.model.Card;
+import escoba.model.Player;
+import framework.observer.IObservable;
+
+import java.util.List;
+
+/**
+ * Vista sin interfaz: anota en un transcript lo que vería el jugador.
+ * Sin transcript (null) funciona como vista nula y solo cuenta mensajes y errores.
+ * Para correr partidas por lotes o repetir sesiones sin Swing.
+ */
+public class RecordingPlayerView implements IPlayerView {
+
+    private final int playerNumber;
+    private final StringBuilder transcript;
+    private long messages;
+    private long errors;
+
+    /**
+     * @param playerNumber Jugador dueño de la vista
+     * @param transcript Destino de las líneas (se puede compartir entre vistas), o null
+     */
+    public RecordingPlayerView(int playerNumber, StringBuilder transcript) {
+        this.playerNumber = playerNumber;
+        this.transcript = transcript;
+    }
+
+    @Override
+    public void displayGameState(List<Card> table, Player player, Player opponent,
+                                 int deckSize, boolean isCurrentPlayer) {
+        if (transcript == null) {
+            return;
+        }
+        line().append("mesa: ");
+        appendCards(table);
+        transcript.append(" | mano: ");
+        appendCards(player.getHand());
+        transcript.append(" | capturas: ").append(player.getCapturedCount())
+                .append(" | escobas: ").append(player.getEscobasCount())
+                .append(" | mazo: ").append(deckSize);
+        if (isCurrentPlayer) {
+            transcript.append(" | tu turno");
+        }
+        transcript.append('\n');
+    }
+
+    @Override
+    public void displayMessage(String message) {
+        messages++;
+        if (transcript != null) {
+            line().append(message).append('\n');
+        }
+    }
+
+    @Override
+    public void displayError(String error) {
+        errors++;
+        if (transcript != null) {
+            line().append("ERROR: ").append(error).append('\n');
+        }
+    }
+
+    @Override
+    public void update(IObservable observable, Object event) {
+        // El controlador refresca las vistas explícitamente
+    }
+
+    public long getMessageCount() {
+        return messages;
+    }
+
+    public long getErrorCount() {
+        return errors;
+    }
+
+    private StringBuilder line() {
+        return transcript.append('[').append(playerNumber).append("] ");
+    }
+
+    private void appendCards(List<Card> cards) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (i > 0) {
+                transcript.append(' ');
+            }
+            transcript.append(cards.get(i).toShortString());
+        }
+    }
+}
@@ -1,19 +1,23 @@
 package framework.observer;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Base class for observable objects.
  * Provides default implementation of the Observer pattern.
  * Extend this class for your model objects that need to notify observers.
+ *
+ * Observers are kept in a copy-on-write list: adding or removing one copies
+ * the list, but notifying iterates a stable snapshot without copying, so an
+ * observer may add or remove observers from inside update().
  */
 public abstract class Observable implements IObservable {
 
     private final List<IObserver> observers;
 
     public Observable() {
-        this.observers = new ArrayList<>();
+        this.observers = new CopyOnWriteArrayList<>();
     }
 
     @Override
@@ -28,10 +32,34 @@ public abstract class Observable implements IObservable {
         observers.remove(observer);
     }
 
+    /**
+     * Notifies every observer. Each update is timed as an ObserverDispatchEvent,
+     * which costs nothing unless a Flight Recorder recording enables it.
+     */
     @Override
     public void notifyObservers(Object event) {
-        for (IObserver observer : new ArrayList<>(observers)) {
+        for (IObserver observer : observers) {
+            ObserverDispatchEvent dispatch = new ObserverDispatchEvent();
+            dispatch.begin();
             observer.update(this, event);
+            dispatch.end();
+            if (dispatch.shouldCommit()) {
+                dispatch.observable = getClass();
+                dispatch.observer = observer.getClass();
+                dispatch.event = String.valueOf(event);
+                dispatch.commit();
+            }
+        }
+    }
+
+    /**
+     * Removes all observers, for example before reusing the object for
+     * something else.
+     */
+    public void clearObservers() {
+        // clear() always replaces the backing array, even when already empty
+        if (!observers.isEmpty()) {
+            observers.clear();
         }
     }
 
@@ -0,0 +1,30 @@
+package framework.observer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a single observer update.
+ * Disabled by default; enable "framework.ObserverDispatch" in a recording
+ * to see how long each observer takes to handle each event.
+ */
+@Name("framework.ObserverDispatch")
+@Label("Observer Dispatch")
+@Category("Observer")
+@Enabled(false)
+@StackTrace(false)
+public final class ObserverDispatchEvent extends Event {
+
+    @Label("Observable")
+    public Class<?> observable;
+
+    @Label("Observer")
+    public Class<?> observer;
+
+    @Label("Event")
+    public String event;
+}